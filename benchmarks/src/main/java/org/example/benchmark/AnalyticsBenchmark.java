@@ -0,0 +1,81 @@
+package org.example.benchmark;
+
+import org.example.dto.GroupTotal;
+import org.example.model.Sale;
+import org.example.repository.SaleRepository;
+import org.example.service.SalesSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Top sellers by revenue from the columnar snapshot against the two JPA alternatives: grouping
+ * loaded entities in memory and a JPQL GROUP BY.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int sales;
+
+    private ConfigurableApplicationContext context;
+    private SaleRepository saleRepository;
+    private SalesSnapshot salesSnapshot;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        BenchmarkData.seed(context, 1000, 10000, sales);
+        saleRepository = context.getBean(SaleRepository.class);
+        salesSnapshot = context.getBean(SalesSnapshot.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<GroupTotal> snapshotTopSellers() {
+        return salesSnapshot.topSellersByRevenue(10);
+    }
+
+    @Benchmark
+    public List<Map.Entry<Long, Double>> entityTopSellers() {
+        Map<Long, Double> revenue = saleRepository.findAll().stream()
+                .filter(sale -> sale.getTotalValue() != null)
+                .collect(Collectors.groupingBy(sale -> sale.getSeller().getId(), Collectors.summingDouble(Sale::getTotalValue)));
+        return revenue.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Object[]> jpqlTopSellers() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT s.seller.id, COUNT(s), SUM(s.totalValue) FROM Sale s " +
+                            "GROUP BY s.seller.id ORDER BY SUM(s.totalValue) DESC", Object[].class)
+                    .setMaxResults(10)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
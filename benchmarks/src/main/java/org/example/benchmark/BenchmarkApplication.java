@@ -0,0 +1,62 @@
+package org.example.benchmark;
+
+import org.example.Main;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application against a throwaway database. An embedded H2 database is used unless
+ * the {@code BENCH_JDBC_URL} environment variable points at another one (with
+ * {@code BENCH_JDBC_USERNAME} and {@code BENCH_JDBC_PASSWORD}); the schema is always created and
+ * dropped by Hibernate, and R2DBC connects to the same database. Environment variables are used
+ * because they reach the forked JMH JVMs.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraArgs) {
+        String url = System.getenv("BENCH_JDBC_URL");
+
+        List<String> args = new ArrayList<>();
+        if (url == null) {
+            String database = "bench-" + UUID.randomUUID();
+            args.add("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.driverClassName=org.h2.Driver");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1");
+            args.add("--spring.r2dbc.username=sa");
+            args.add("--spring.r2dbc.password=");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        } else {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + env("BENCH_JDBC_USERNAME", "postgres"));
+            args.add("--spring.datasource.password=" + env("BENCH_JDBC_PASSWORD", ""));
+            args.add("--spring.r2dbc.url=" + url.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", ""));
+            args.add("--spring.r2dbc.username=" + env("BENCH_JDBC_USERNAME", "postgres"));
+            args.add("--spring.r2dbc.password=" + env("BENCH_JDBC_PASSWORD", ""));
+        }
+        args.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+        args.add("--logging.level.root=WARN");
+        // Load benchmarks measure the endpoints themselves, not how much the limiter sheds.
+        args.add("--sales.limits.enabled=" + env("BENCH_LIMITS_ENABLED", "false"));
+        args.addAll(Arrays.asList(extraArgs));
+
+        return new SpringApplicationBuilder(Main.class)
+                .web(webApplicationType)
+                .run(args.toArray(new String[0]));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
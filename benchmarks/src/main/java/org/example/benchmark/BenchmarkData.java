@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import org.example.model.Customer;
+import org.example.model.CustomerSalesStats;
+import org.example.model.Sale;
+import org.example.model.Seller;
+import org.example.model.SellerSalesStats;
+import org.example.repository.CustomerRepository;
+import org.example.repository.CustomerSalesStatsRepository;
+import org.example.repository.SellerRepository;
+import org.example.repository.SellerSalesStatsRepository;
+import org.example.service.SaleBatchService;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public final class BenchmarkData {
+    private static final int CHUNK = SaleBatchService.MAX_BATCH_SIZE;
+
+    private final List<Long> sellerIds = new ArrayList<>();
+    private final List<Long> customerIds = new ArrayList<>();
+    private final Random random = new Random(42);
+
+    public static BenchmarkData seed(ApplicationContext context, int sellers, int customers, int sales) {
+        BenchmarkData data = new BenchmarkData();
+        SellerRepository sellerRepository = context.getBean(SellerRepository.class);
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        SaleBatchService saleBatchService = context.getBean(SaleBatchService.class);
+        // Stats rows are created with their seller or customer, as the controllers do; H2 has no
+        // ON CONFLICT ... DO UPDATE for the rollup's fallback when one is missing.
+        SellerSalesStatsRepository sellerStatsRepository = context.getBean(SellerSalesStatsRepository.class);
+        CustomerSalesStatsRepository customerStatsRepository = context.getBean(CustomerSalesStatsRepository.class);
+
+        List<Seller> sellerChunk = new ArrayList<>();
+        for (int i = 0; i < sellers; i++) {
+            sellerChunk.add(new Seller(null, "Seller " + i, "seller" + i + "@example.com", String.valueOf(i),
+                    2000.0 + data.random.nextInt(8000)));
+            if (sellerChunk.size() == CHUNK || i == sellers - 1) {
+                List<Long> ids = sellerRepository.saveAll(sellerChunk).stream().map(Seller::getId).collect(Collectors.toList());
+                sellerStatsRepository.saveAll(ids.stream().map(id -> new SellerSalesStats(id, 0L, 0.0))
+                        .collect(Collectors.toList()));
+                data.sellerIds.addAll(ids);
+                sellerChunk.clear();
+            }
+        }
+
+        List<Customer> customerChunk = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            customerChunk.add(new Customer(null, "Customer " + i, "customer" + i + "@example.com", String.valueOf(i),
+                    "Street " + i));
+            if (customerChunk.size() == CHUNK || i == customers - 1) {
+                List<Long> ids = customerRepository.saveAll(customerChunk).stream().map(Customer::getId)
+                        .collect(Collectors.toList());
+                customerStatsRepository.saveAll(ids.stream().map(id -> new CustomerSalesStats(id, 0L, 0.0))
+                        .collect(Collectors.toList()));
+                data.customerIds.addAll(ids);
+                customerChunk.clear();
+            }
+        }
+
+        List<Sale> saleChunk = new ArrayList<>();
+        for (int i = 0; i < sales; i++) {
+            saleChunk.add(data.newSale());
+            if (saleChunk.size() == CHUNK || i == sales - 1) {
+                saleBatchService.insertAll(saleChunk);
+                saleChunk.clear();
+            }
+        }
+
+        return data;
+    }
+
+    public Sale newSale() {
+        Sale sale = new Sale();
+        sale.setSeller(new Seller(randomId(sellerIds), null, null, null, null));
+        sale.setCustomer(new Customer(randomId(customerIds), null, null, null, null));
+        sale.setProductId((long) random.nextInt(1000));
+        sale.setProductName("Product");
+        sale.setProductQuantity(1 + random.nextInt(5));
+        sale.setProductPrice(1.0 + random.nextInt(10000) / 100.0);
+        return sale;
+    }
+
+    public static String toJson(Sale sale) {
+        return "{\"seller\":{\"id\":" + sale.getSeller().getId() + "}," +
+                "\"customer\":{\"id\":" + sale.getCustomer().getId() + "}," +
+                "\"productId\":" + sale.getProductId() + "," +
+                "\"productName\":\"" + sale.getProductName() + "\"," +
+                "\"productPrice\":" + sale.getProductPrice() + "," +
+                "\"productQuantity\":" + sale.getProductQuantity() + "}";
+    }
+
+    private Long randomId(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.benchmark;
+
+import org.example.service.SaleCsvExporter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full CSV export, plain and gzipped, reported as rows per second through the {@code rows} counter.
+ * Sales are inserted with plain JDBC batches because seeding ten million rows through JPA takes
+ * longer than the measurement. Ten million rows need a large heap on H2; prefer {@code BENCH_JDBC_URL}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CsvExportBenchmark {
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"1000000", "10000000"})
+    private int sales;
+
+    private ConfigurableApplicationContext context;
+    private SaleCsvExporter saleCsvExporter;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        BenchmarkData.seed(context, 100, 1000, 0);
+        saleCsvExporter = context.getBean(SaleCsvExporter.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long minSeller = jdbcTemplate.queryForObject("SELECT MIN(id_seller) FROM seller", Long.class);
+        Long minCustomer = jdbcTemplate.queryForObject("SELECT MIN(id_customer) FROM customer", Long.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 1; i <= sales; i++) {
+            int quantity = 1 + random.nextInt(5);
+            double price = 1.0 + random.nextInt(10000) / 100.0;
+            batch.add(new Object[]{(long) i, minSeller + random.nextInt(100), minCustomer + random.nextInt(1000),
+                    (long) random.nextInt(1000), "Product " + i % 100, price, quantity, price * quantity});
+            if (batch.size() == INSERT_BATCH || i == sales) {
+                jdbcTemplate.batchUpdate("INSERT INTO sale (id_sale, id_seller, id_customer, product_id, product_name, " +
+                        "product_price, product_quantity, total_value, version, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, CURRENT_TIMESTAMP)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void exportPlain(Rows counter) throws IOException {
+        counter.rows += saleCsvExporter.export(new DiscardingOutputStream());
+    }
+
+    @Benchmark
+    public void exportGzip(Rows counter) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(new DiscardingOutputStream(), 64 * 1024);
+        counter.rows += saleCsvExporter.export(gzip);
+        gzip.finish();
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.benchmark;
+
+import org.example.model.Customer;
+import org.example.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search over customer email. The trigram index only exists on PostgreSQL, so run this
+ * with {@code BENCH_JDBC_URL} set to compare against the H2 sequential-scan baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerEmailSearchBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        BenchmarkData.seed(context, 10, customers, 0);
+        customerRepository = context.getBean(CustomerRepository.class);
+
+        String url = System.getenv("BENCH_JDBC_URL");
+        if (url != null && url.startsWith("jdbc:postgresql:")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX idx_customer_email_trgm ON customer USING gin (email gin_trgm_ops)");
+            jdbcTemplate.execute("ANALYZE customer");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long countSelective() {
+        return customerRepository.countByEmailContaining("mer12345@");
+    }
+
+    @Benchmark
+    public long countBroad() {
+        return customerRepository.countByEmailContaining("er99");
+    }
+
+    @Benchmark
+    public List<Customer> searchFirstPage() {
+        return customerRepository.findByEmailContainingAndIdGreaterThanOrderByIdAsc("er99", 0L, PageRequest.of(0, 50));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares blocking JPA endpoints with their R2DBC streaming counterparts under /reactive from 256
+ * concurrent clients, more than Tomcat's 200 request threads, so the blocking side saturates its
+ * pool. Both sides return the same rows and fields: sales as {@code SaleSummary} lines read in keyset
+ * pages of 500 ({@code /sales/summaries/stream} against {@code /reactive/sales}), sellers and
+ * customers as the entities themselves. Sample-time mode reports p50/p90/p99 latency and throughput
+ * mode requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(256)
+public class ReactiveReadLoadBenchmark {
+
+    @Param({"blocking", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String salesPath;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET, "--server.port=0");
+        BenchmarkData.seed(context, 100, 1000, 2000);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "reactive".equals(stack) ? "http://localhost:" + port + "/reactive" : "http://localhost:" + port;
+        salesPath = "reactive".equals(stack) ? "/sales" : "/sales/summaries/stream";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getSales() throws IOException, InterruptedException {
+        return get(salesPath);
+    }
+
+    @Benchmark
+    public int getCustomers() throws IOException, InterruptedException {
+        return get("/customers");
+    }
+
+    @Benchmark
+    public int getSellers() throws IOException, InterruptedException {
+        return get("/sellers");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import org.example.controller.SaleController;
+import org.example.model.Sale;
+import org.example.repository.CustomerRepository;
+import org.example.repository.SaleRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int sales;
+
+    private ConfigurableApplicationContext context;
+    private SaleRepository saleRepository;
+    private CustomerRepository customerRepository;
+    private SaleController saleController;
+    private JdbcTemplate jdbcTemplate;
+    private BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        data = BenchmarkData.seed(context, Math.max(10, sales / 100), Math.max(10, sales / 10), sales);
+        saleRepository = context.getBean(SaleRepository.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        saleController = context.getBean(SaleController.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class NullTotals {
+        @Setup(Level.Invocation)
+        public void reset(RepositoryBenchmark benchmark) {
+            benchmark.jdbcTemplate.update("UPDATE sale SET total_value = NULL WHERE MOD(id_sale, 10) = 0");
+        }
+    }
+
+    @Benchmark
+    public List<Sale> findAll() {
+        return saleRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Sale> findByTotalValueGreaterThan() {
+        return saleRepository.findByTotalValueGreaterThan(10.00);
+    }
+
+    @Benchmark
+    public void updateTotalValueToZero(NullTotals nullTotals) {
+        saleRepository.updateTotalValueToZero();
+    }
+
+    @Benchmark
+    public long countByEmailContaining() {
+        return customerRepository.countByEmailContaining("er1");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void createSale(Blackhole blackhole) {
+        ResponseEntity<Object> response = saleController.createSale(data.newSale());
+        blackhole.consume(response);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.benchmark;
+
+import org.example.controller.SaleController;
+import org.example.dto.BatchResult;
+import org.example.model.Sale;
+import org.example.service.SaleBatchService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares inserting sales one request at a time ({@code SaleController.createSale}, one transaction
+ * each) with {@code SaleBatchService.insertAll} for the same number of rows. Scores are per sale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaleInsertBenchmark {
+    private static final int SALES_PER_INVOCATION = 1000;
+
+    private ConfigurableApplicationContext context;
+    private SaleController saleController;
+    private SaleBatchService saleBatchService;
+    private BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        data = BenchmarkData.seed(context, 100, 1000, 0);
+        saleController = context.getBean(SaleController.class);
+        saleBatchService = context.getBean(SaleBatchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+        @Param({"10", "100", "1000"})
+        private int size;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SALES_PER_INVOCATION)
+    public void createSale(Blackhole blackhole) {
+        for (int i = 0; i < SALES_PER_INVOCATION; i++) {
+            blackhole.consume(saleController.createSale(data.newSale()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SALES_PER_INVOCATION)
+    public void insertAll(Batch batch, Blackhole blackhole) {
+        for (int inserted = 0; inserted < SALES_PER_INVOCATION; inserted += batch.size) {
+            List<Sale> sales = new ArrayList<>(batch.size);
+            for (int i = 0; i < batch.size; i++) {
+                sales.add(data.newSale());
+            }
+            BatchResult result = saleBatchService.insertAll(sales);
+            blackhole.consume(result);
+        }
+    }
+}
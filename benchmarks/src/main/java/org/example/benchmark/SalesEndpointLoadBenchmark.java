@@ -0,0 +1,83 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the /sales endpoints over HTTP from 64 concurrent clients with the default Tomcat pool
+ * and with the {@code virtual-threads} profile. Sample-time mode reports p50/p90/p99 latency and
+ * throughput mode requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Threads(64)
+public class SalesEndpointLoadBenchmark {
+    private static final int SALES = 10000;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "virtual".equals(threads)
+                ? BenchmarkApplication.start(WebApplicationType.SERVLET, "--server.port=0", "--spring.profiles.active=virtual-threads")
+                : BenchmarkApplication.start(WebApplicationType.SERVLET, "--server.port=0");
+        data = BenchmarkData.seed(context, 100, 1000, SALES);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getSalesPage() throws IOException, InterruptedException {
+        long after = ThreadLocalRandom.current().nextLong(SALES);
+        return get("/sales/page?size=50&after=" + after);
+    }
+
+    @Benchmark
+    public int getSaleById() throws IOException, InterruptedException {
+        return get("/sales/" + (1 + ThreadLocalRandom.current().nextLong(SALES)));
+    }
+
+    @Benchmark
+    public int createSale() throws IOException, InterruptedException {
+        String body;
+        synchronized (data) {
+            body = BenchmarkData.toJson(data.newSale());
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/sales"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    protected int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+// Wraps the transaction advice, so @CacheEvict on a transactional method runs after the commit and a
+// concurrent read cannot cache the row it is replacing.
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+}
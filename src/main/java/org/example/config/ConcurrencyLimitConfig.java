@@ -0,0 +1,32 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.web.ConcurrencyLimitFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+    @Autowired
+    private ConcurrencyLimitProperties concurrencyLimitProperties;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Lazy: filters are registered while the web server starts, before the MVC infrastructure exists.
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            @Lazy @Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(concurrencyLimitProperties, meterRegistry, handlerMapping));
+        // Ahead of the idempotency filter, so a shed request does no other work.
+        registration.setOrder(WebFilterConfig.IDEMPOTENCY_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.web.LimitGroup;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sales.limits")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    // How much slower than its long-term average an endpoint may get before its limit shrinks.
+    private double tolerance = 1.5;
+    private double smoothing = 0.2;
+    private Group read = new Group(20, 4, 200, 400);
+    private Group scan = new Group(4, 1, 16, 16);
+    private Group write = new Group(10, 2, 100, 200);
+
+    public Group group(LimitGroup group) {
+        switch (group) {
+            case SCAN:
+                return scan;
+            case WRITE:
+                return write;
+            default:
+                return read;
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        // Ceiling on the requests all endpoints of the group handle together.
+        private int sharedLimit;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the JDBC datasource explicitly. Spring Boot's datasource auto-configuration backs off
+ * once an R2DBC connection factory exists, which would leave JPA and {@code JdbcTemplate} without
+ * a database. With replica routing on, {@link ReadReplicaConfig} declares the datasource instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sales.datasource.routing.enabled", havingValue = "false", matchIfMissing = true)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class JdbcDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
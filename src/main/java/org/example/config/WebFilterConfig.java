@@ -0,0 +1,24 @@
+package org.example.config;
+
+import org.example.web.IdempotencyFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Restricts the servlet filters to the endpoints they protect; without a registration Spring Boot
+ * would map every filter bean to all requests.
+ */
+@Configuration
+public class WebFilterConfig {
+    public static final int IDEMPOTENCY_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter filter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/sales", "/customers");
+        registration.setOrder(IDEMPOTENCY_FILTER_ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.controller;
+
+import org.example.service.SalesSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private SalesSnapshot salesSnapshot;
+
+    @GetMapping("/sellers/topByRevenue")
+    public ResponseEntity<Object> getTopSellersByRevenue(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(salesSnapshot.topSellersByRevenue(limit));
+    }
+
+    @GetMapping("/customers/revenue")
+    public ResponseEntity<Object> getRevenuePerCustomer(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(salesSnapshot.topCustomersByRevenue(limit));
+    }
+
+    @GetMapping("/products/quantity")
+    public ResponseEntity<Object> getQuantityPerProduct(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(salesSnapshot.topProductsByQuantity(limit));
+    }
+
+    private ResponseEntity<Object> invalidLimit() {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("O limite deve estar entre 1 e " + MAX_LIMIT + ".");
+    }
+}
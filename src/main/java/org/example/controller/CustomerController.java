@@ -1,23 +1,49 @@
 package org.example.controller;
 
+import org.example.dto.CursorPage;
+import org.example.dto.SalesStats;
 import org.example.model.Customer;
 import org.example.repository.CustomerRepository;
+import org.example.service.ChangeTokenService;
+import org.example.service.ReferenceExistenceIndex;
+import org.example.service.SalesRollupService;
+import org.example.web.ScanEndpoint;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/customers")
 public class CustomerController {
+    private static final int MIN_SEARCH_LENGTH = 3;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private ReferenceExistenceIndex referenceIndex;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private ChangeTokenService changeTokenService;
 
     @GetMapping
-    public ResponseEntity<Object> getAllCustomers() {
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getAllCustomers(WebRequest request) {
+        if (request.checkNotModified(changeTokenService.etag(ChangeTokenService.CUSTOMERS))) {
+            return null;
+        }
+
         List<Customer> customers = customerRepository.findAll();
 
         if (customers.isEmpty()) {
@@ -29,6 +55,8 @@ public class CustomerController {
 
 
     @PostMapping("/countByEmailContaining")
+    @ScanEndpoint
+    @Transactional(readOnly = true)
     public ResponseEntity<String> countCustomersByEmailContaining(@RequestBody Map<String, String> requestBody) {
         String email = requestBody.get("email");
 
@@ -43,19 +71,58 @@ public class CustomerController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Nenhum cliente encontrado com email contendo '" + email + "'.");
     }
 
+    @GetMapping("/searchByEmail")
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> searchCustomersByEmail(@RequestParam String email,
+                                                         @RequestParam(defaultValue = "0") Long after,
+                                                         @RequestParam(defaultValue = "50") int size) {
+        if (email.length() < MIN_SEARCH_LENGTH) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Informe ao menos " + MIN_SEARCH_LENGTH + " caracteres do email.");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Customer> customers = customerRepository.findByEmailContainingAndIdGreaterThanOrderByIdAsc(
+                email, after, PageRequest.of(0, pageSize));
+        Long nextCursor = customers.size() == pageSize ? customers.get(customers.size() - 1).getId() : null;
+
+        return ResponseEntity.ok(new CursorPage<>(customers, nextCursor));
+    }
+
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Object> createCustomer(@RequestBody Customer customer) {
         customerRepository.save(customer);
+        referenceIndex.addCustomer(customer.getId());
+        salesRollupService.registerCustomer(customer.getId());
+        changeTokenService.bump(ChangeTokenService.CUSTOMERS);
         return ResponseEntity.status(HttpStatus.CREATED).body("Cliente criado.");
     }
 
 
+    @GetMapping("/{id}/stats")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getCustomerStats(@PathVariable Long id) {
+        Optional<SalesStats> stats = salesRollupService.getCustomerStats(id);
+
+        if (stats.isPresent()) {
+            return ResponseEntity.ok(stats.get());
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cliente com ID " + id + " não encontrado.");
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getCustomerById(@PathVariable Long id) {
-        Customer customer = customerRepository.findById(id).orElse(null);
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getCustomerById(@PathVariable Long id, WebRequest request) {
+        Customer customer = customerRepository.findCachedById(id).orElse(null);
 
         if (customer != null) {
+            if (request.checkNotModified(String.valueOf(customer.getVersion()))) {
+                return null;
+            }
             return ResponseEntity.ok(customer);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cliente com ID " + id + " não encontrado.");
@@ -63,13 +130,19 @@ public class CustomerController {
     }
 
     @DeleteMapping("/{id}")
+    @CacheEvict(cacheNames = "customers", key = "#id")
+    @Transactional
     public ResponseEntity<String> deleteCustomer(@PathVariable Long id) {
         customerRepository.deleteById(id);
+        referenceIndex.removeCustomer(id);
+        changeTokenService.bump(ChangeTokenService.CUSTOMERS);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Cliente com ID " + id + " foi deletado com sucesso.");
 
     }
 
     @PutMapping("/{id}")
+    @CacheEvict(cacheNames = "customers", key = "#id")
+    @Transactional
     public ResponseEntity<Object> updateCustomer(@PathVariable Long id, @RequestBody Customer updatedCustomer) {
         return customerRepository.findById(id).map(customer -> {
             customer.setName(updatedCustomer.getName());
@@ -77,6 +150,7 @@ public class CustomerController {
             customer.setCpf(updatedCustomer.getCpf());
             customer.setAddress(updatedCustomer.getAddress());
             customerRepository.save(customer);
+            changeTokenService.bump(ChangeTokenService.CUSTOMERS);
             return ResponseEntity.ok().build();
 
         }).orElse(ResponseEntity.notFound().build());
@@ -0,0 +1,56 @@
+package org.example.controller;
+
+import org.example.dto.ImportResult;
+import org.example.service.BulkImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.function.Function;
+
+/**
+ * Bulk CSV imports. The request body is the CSV file itself ({@code Content-Type: text/csv}) with a
+ * header line; it is streamed into the database, not buffered.
+ */
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @PostMapping(value = "/customers", consumes = "text/csv")
+    public ResponseEntity<Object> importCustomers(InputStream csv) {
+        return runImport(bulkImportService::importCustomers, csv);
+    }
+
+    @PostMapping(value = "/sellers", consumes = "text/csv")
+    public ResponseEntity<Object> importSellers(InputStream csv) {
+        return runImport(bulkImportService::importSellers, csv);
+    }
+
+    @PostMapping(value = "/sales", consumes = "text/csv")
+    public ResponseEntity<Object> importSales(InputStream csv) {
+        return runImport(bulkImportService::importSales, csv);
+    }
+
+    private ResponseEntity<Object> runImport(Function<InputStream, ImportResult> importer, InputStream csv) {
+        ImportResult result;
+        try {
+            result = importer.apply(csv);
+        } catch (DataAccessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Arquivo CSV inválido: " + e.getMostSpecificCause().getMessage());
+        }
+
+        if (result.getImported() == 0 && result.getRejected() > 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers 409 when a request changed a sale, customer or seller that another request changed first
+ * ({@code @Version} mismatch). The conflict shows at commit, after the controller method returns,
+ * so the controllers cannot catch it themselves.
+ */
+@RestControllerAdvice
+public class OptimisticLockingAdvice {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("O registro foi alterado por outra requisição. Tente novamente.");
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.controller;
+
+import org.example.dto.SaleSummary;
+import org.example.model.Customer;
+import org.example.model.Seller;
+import org.example.repository.ReactiveCustomerRepository;
+import org.example.repository.ReactiveSaleRepository;
+import org.example.repository.ReactiveSellerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Streams sales, sellers and customers as newline-delimited JSON over R2DBC without holding a
+ * request thread while the database works. Rows are read in keyset pages of {@code pageSize} and at
+ * most one page is fetched ahead of what the client has consumed, so a slow client slows the reads
+ * instead of buffering the table.
+ */
+@RestController
+@RequestMapping("/reactive")
+public class ReactiveReadController {
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ReactiveSaleRepository reactiveSaleRepository;
+    @Autowired
+    private ReactiveSellerRepository reactiveSellerRepository;
+    @Autowired
+    private ReactiveCustomerRepository reactiveCustomerRepository;
+
+    @GetMapping(value = "/sales", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SaleSummary> streamSales(@RequestParam(defaultValue = "0") Long after,
+                                         @RequestParam(defaultValue = "500") int pageSize) {
+        return keyset(after, pageSize, reactiveSaleRepository::findSummariesAfter, SaleSummary::getId);
+    }
+
+    @GetMapping(value = "/sellers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Seller> streamSellers(@RequestParam(defaultValue = "0") Long after,
+                                      @RequestParam(defaultValue = "500") int pageSize) {
+        return keyset(after, pageSize, reactiveSellerRepository::findAfter, Seller::getId);
+    }
+
+    @GetMapping(value = "/customers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Customer> streamCustomers(@RequestParam(defaultValue = "0") Long after,
+                                          @RequestParam(defaultValue = "500") int pageSize) {
+        return keyset(after, pageSize, reactiveCustomerRepository::findAfter, Customer::getId);
+    }
+
+    private static <T> Flux<T> keyset(Long after, int size, BiFunction<Long, Integer, Flux<T>> query,
+                                      Function<T, Long> id) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return query.apply(after, pageSize).collectList()
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : query.apply(id.apply(page.get(page.size() - 1)), pageSize).collectList())
+                .concatMapIterable(page -> page, 1);
+    }
+}
@@ -1,32 +1,116 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.BatchResult;
+import org.example.dto.CursorPage;
+import org.example.dto.IngestState;
+import org.example.dto.IngestStatus;
+import org.example.dto.SalePatch;
+import org.example.dto.SaleSummary;
+import org.example.dto.SaleView;
+import org.example.dto.SalesStats;
 import org.example.model.Customer;
 import org.example.model.Sale;
+import org.example.model.SaleMaintenanceJob;
 import org.example.model.Seller;
 import org.example.repository.CustomerRepository;
 import org.example.repository.SaleRepository;
 import org.example.repository.SellerRepository;
+import org.example.service.AsyncSaleIngestion;
+import org.example.service.ChangeTokenService;
+import org.example.service.ReferenceExistenceIndex;
+import org.example.service.SaleBatchService;
+import org.example.service.SaleChangeFeed;
+import org.example.service.SaleCsvExporter;
+import org.example.service.SaleContribution;
+import org.example.service.SaleOutbox;
+import org.example.service.SalesRollupService;
+import org.example.service.SalesSnapshot;
+import org.example.service.TotalValueZeroJob;
+import org.example.web.ScanEndpoint;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/sales")
 public class SaleController {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     @Autowired
     private SaleRepository saleRepository;
     @Autowired
     private SellerRepository sellerRepository;
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private SaleBatchService saleBatchService;
+    @Autowired
+    private ReferenceExistenceIndex referenceIndex;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private SalesSnapshot salesSnapshot;
+    @Autowired
+    private SaleCsvExporter saleCsvExporter;
+    @Autowired
+    private ChangeTokenService changeTokenService;
+    @Autowired
+    private TotalValueZeroJob totalValueZeroJob;
+    @Autowired
+    private AsyncSaleIngestion asyncSaleIngestion;
+    @Autowired
+    private SaleOutbox saleOutbox;
+    @Autowired
+    private SaleChangeFeed saleChangeFeed;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
 
 
     @GetMapping
-    public ResponseEntity<Object> getAllSales() {
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getAllSales(WebRequest request) {
+        if (request.checkNotModified(changeTokenService.etag(ChangeTokenService.SALES, ChangeTokenService.SELLERS,
+                ChangeTokenService.CUSTOMERS))) {
+            return null;
+        }
+
         List<Sale> sales = saleRepository.findAll();
 
         if (sales.isEmpty()) {
@@ -37,8 +121,108 @@ public class SaleController {
 
     }
 
+    @GetMapping("/page")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<Sale>> getSalesPage(@RequestParam(defaultValue = "0") Long after,
+                                                         @RequestParam(defaultValue = "100") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Sale> sales = saleRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, pageSize));
+        Long nextCursor = sales.size() == pageSize ? sales.get(sales.size() - 1).getId() : null;
+
+        return ResponseEntity.ok(new CursorPage<>(sales, nextCursor));
+    }
+
+    @GetMapping("/summaries")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<SaleSummary>> getSaleSummaries(@RequestParam(defaultValue = "0") Long after,
+                                                                    @RequestParam(defaultValue = "100") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<SaleSummary> summaries = saleRepository.findSummariesAfter(after, PageRequest.of(0, pageSize));
+        Long nextCursor = summaries.size() == pageSize ? summaries.get(summaries.size() - 1).getId() : null;
+
+        return ResponseEntity.ok(new CursorPage<>(summaries, nextCursor));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ScanEndpoint
+    public ResponseEntity<StreamingResponseBody> streamSales() {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        StreamingResponseBody body = outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            int written = 0;
+            try (Stream<Sale> sales = saleRepository.streamAll()) {
+                for (Sale sale : (Iterable<Sale>) sales::iterator) {
+                    writeLine(outputStream, sale);
+                    if (++written % STREAM_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Blocking counterpart of {@code GET /reactive/sales}: the same summaries, keyset pages and NDJSON
+     * output, read over JDBC on the request thread.
+     */
+    @GetMapping(value = "/summaries/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ScanEndpoint
+    public ResponseEntity<StreamingResponseBody> streamSaleSummaries(@RequestParam(defaultValue = "0") Long after,
+                                                                     @RequestParam(defaultValue = "500") int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        StreamingResponseBody body = outputStream -> {
+            Long cursor = after;
+            List<SaleSummary> page;
+            do {
+                Long from = cursor;
+                page = readOnlyTransaction.execute(status -> saleRepository.findSummariesAfter(from, PageRequest.of(0, size)));
+                for (SaleSummary summary : page) {
+                    writeLine(outputStream, summary);
+                }
+                if (!page.isEmpty()) {
+                    cursor = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == size);
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/export")
+    @ScanEndpoint
+    public ResponseEntity<StreamingResponseBody> exportSales(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+                saleCsvExporter.export(gzipStream);
+                gzipStream.finish();
+            } else {
+                saleCsvExporter.export(outputStream);
+            }
+        };
+
+        String fileName = gzip ? "sales.csv.gz" : "sales.csv";
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @GetMapping("/salesAbove10")
-    public ResponseEntity<Object> getSalesAbove10() {
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSalesAbove10(WebRequest request) {
+        if (request.checkNotModified(changeTokenService.etag(ChangeTokenService.SALES, ChangeTokenService.SELLERS,
+                ChangeTokenService.CUSTOMERS))) {
+            return null;
+        }
+
         List<Sale> salesAbove10 = saleRepository.findByTotalValueGreaterThan(10.00);
 
         if (salesAbove10.isEmpty()) {
@@ -48,32 +232,197 @@ public class SaleController {
         return ResponseEntity.ok(salesAbove10);
     }
 
+    @GetMapping("/range")
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSalesInRange(@RequestParam(required = false) Double min,
+                                                  @RequestParam(required = false) Double max,
+                                                  @RequestParam(defaultValue = "asc") String sort,
+                                                  @RequestParam(defaultValue = "100") int limit,
+                                                  @RequestParam(defaultValue = "list") String mode) {
+        double lower = min != null ? min : -Double.MAX_VALUE;
+        double upper = max != null ? max : Double.MAX_VALUE;
+        if (lower > upper) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("O valor mínimo não pode ser maior que o máximo.");
+        }
+
+        switch (mode) {
+            case "count":
+                return ResponseEntity.ok(Collections.singletonMap("count", saleRepository.countByTotalValueBetween(lower, upper)));
+            case "sum":
+                return ResponseEntity.ok(Collections.singletonMap("sum", saleRepository.sumTotalValueBetween(lower, upper)));
+            case "list":
+                Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(sort);
+                if (!direction.isPresent()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Ordenação inválida: " + sort + ".");
+                }
+                int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+                List<Sale> sales = saleRepository.findByTotalValueBetween(lower, upper,
+                        PageRequest.of(0, pageSize, Sort.by(direction.get(), "totalValue")));
+                return ResponseEntity.ok(sales);
+            default:
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Modo inválido: " + mode + ".");
+        }
+    }
+
+    @GetMapping("/period")
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSalesInPeriod(@RequestParam Instant from,
+                                                   @RequestParam Instant to,
+                                                   @RequestParam(defaultValue = "asc") String sort,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("O início do período deve ser anterior ao fim.");
+        }
+        Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(sort);
+        if (!direction.isPresent()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Ordenação inválida: " + sort + ".");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Sale> sales = saleRepository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(from, to,
+                PageRequest.of(0, pageSize, Sort.by(direction.get(), "createdAt", "id")));
+        return ResponseEntity.ok(sales);
+    }
+
+    @GetMapping("/period/stats")
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSalesStatsInPeriod(@RequestParam Instant from, @RequestParam Instant to) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("O início do período deve ser anterior ao fim.");
+        }
+
+        Object[] row = saleRepository.summarizeCreatedBetween(from, to).get(0);
+        return ResponseEntity.ok(SalesStats.of((Long) row[0], (Double) row[1]));
+    }
+
     @PutMapping("/updateTotalValueToZero")
-    public ResponseEntity<Void> updateTotalValueToZero() {
-        saleRepository.updateTotalValueToZero();
-        return ResponseEntity.ok().build();
+    public ResponseEntity<SaleMaintenanceJob> updateTotalValueToZero() {
+        SaleMaintenanceJob job = totalValueZeroJob.start();
+        return ResponseEntity.accepted()
+                .location(URI.create("/sales/updateTotalValueToZero/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/updateTotalValueToZero/{jobId}")
+    public ResponseEntity<Object> getUpdateTotalValueToZeroJob(@PathVariable Long jobId) {
+        Optional<SaleMaintenanceJob> job = totalValueZeroJob.find(jobId);
+
+        if (job.isPresent()) {
+            return ResponseEntity.ok(job.get());
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Tarefa com ID " + jobId + " não encontrada.");
+        }
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Object> createSale(@RequestBody Sale sale) {
-        Optional<Seller> sellerOptional = sellerRepository.findById(sale.getSeller().getId());
-        if (!sellerOptional.isPresent()) {
+        if (!referenceIndex.sellerExists(sale.getSeller().getId())) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Vendedor não encontrado.");
         }
 
-        Optional<Customer> customerOptional = customerRepository.findById(sale.getCustomer().getId());
-        if (!customerOptional.isPresent()) {
+        if (!referenceIndex.customerExists(sale.getCustomer().getId())) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cliente não encontrado.");
         }
 
-        saleRepository.save(sale);
+        sale.setId(null);
+        sale.setSeller(sellerRepository.getReferenceById(sale.getSeller().getId()));
+        sale.setCustomer(customerRepository.getReferenceById(sale.getCustomer().getId()));
+        try {
+            saleRepository.saveAndFlush(sale);
+        } catch (DataIntegrityViolationException e) {
+            // The index said yes but the row is gone (deleted by SQL, or added by a transaction that rolled back).
+            referenceIndex.removeSeller(sale.getSeller().getId());
+            referenceIndex.removeCustomer(sale.getCustomer().getId());
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Vendedor ou cliente não encontrado.");
+        }
+        salesRollupService.add(SaleContribution.of(sale));
+        salesSnapshot.put(sale);
+        saleOutbox.created(sale);
+        changeTokenService.bump(ChangeTokenService.SALES);
 
         return ResponseEntity.status(HttpStatus.CREATED).body("Venda criada.");
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createSales(@RequestBody List<Sale> sales) {
+        if (sales.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("A lista de vendas está vazia.");
+        }
+        if (sales.size() > SaleBatchService.MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("O lote excede o limite de " + SaleBatchService.MAX_BATCH_SIZE + " vendas.");
+        }
+
+        BatchResult result = saleBatchService.insertAll(sales);
+
+        if (result.getCreated() == 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<Object> createSaleAsync(@RequestBody Sale sale) {
+        if (sale.getSeller() == null || !referenceIndex.sellerExists(sale.getSeller().getId())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Vendedor não encontrado.");
+        }
+
+        if (sale.getCustomer() == null || !referenceIndex.customerExists(sale.getCustomer().getId())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cliente não encontrado.");
+        }
+
+        sale.setId(null);
+        Optional<String> trackingId = asyncSaleIngestion.submit(sale);
+
+        if (!trackingId.isPresent()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("A fila de vendas está cheia. Tente novamente mais tarde.");
+        }
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/sales/async/" + trackingId.get()))
+                .body(new IngestStatus(trackingId.get(), IngestState.PENDING, null, null));
+    }
+
+    @GetMapping("/async")
+    public ResponseEntity<Object> getAsyncQueueStatus() {
+        return ResponseEntity.ok(asyncSaleIngestion.queueStatus());
+    }
+
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<Object> getAsyncSaleStatus(@PathVariable String trackingId) {
+        Optional<IngestStatus> status = asyncSaleIngestion.status(trackingId);
+
+        if (status.isPresent()) {
+            return ResponseEntity.ok(status.get());
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Venda pendente " + trackingId + " não encontrada.");
+        }
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                    @RequestParam(required = false) Long after) {
+        return saleChangeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getSaleById(@PathVariable Long id) {
-        Sale sale = saleRepository.findById(id).orElse(null);
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSaleById(@PathVariable Long id, WebRequest request) {
+        Optional<String> etag = saleRepository.findEtagById(id);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+
+        Sale sale = etag.isPresent() ? saleRepository.findById(id).orElse(null) : null;
 
         if (sale != null) {
             return ResponseEntity.ok(sale);
@@ -83,25 +432,20 @@ public class SaleController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Sale> updateSale(@PathVariable Long id, @RequestBody Sale updatedSale) {
+    @Transactional
+    public ResponseEntity<SaleView> updateSale(@PathVariable Long id, @RequestBody Sale updatedSale) {
         Optional<Sale> saleOptional = saleRepository.findById(id);
 
         if (saleOptional.isPresent()) {
             Sale sale = saleOptional.get();
+            SaleContribution previous = SaleContribution.of(sale);
 
-            Optional<Seller> vendedorOptional = sellerRepository.findById(updatedSale.getSeller().getId());
-            if (vendedorOptional.isPresent()) {
-                sale.setSeller(vendedorOptional.get());
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-
-            Optional<Customer> clienteOptional = customerRepository.findById(updatedSale.getCustomer().getId());
-            if (clienteOptional.isPresent()) {
-                sale.setCustomer(clienteOptional.get());
-            } else {
+            if (!referenceIndex.sellerExists(updatedSale.getSeller().getId())
+                    || !referenceIndex.customerExists(updatedSale.getCustomer().getId())) {
                 return ResponseEntity.notFound().build();
             }
+            sale.setSeller(sellerRepository.getReferenceById(updatedSale.getSeller().getId()));
+            sale.setCustomer(customerRepository.getReferenceById(updatedSale.getCustomer().getId()));
 
             sale.setProductId(updatedSale.getProductId());
             sale.setProductName(updatedSale.getProductName());
@@ -109,17 +453,79 @@ public class SaleController {
             sale.setProductQuantity(updatedSale.getProductQuantity());
             sale.setTotalValue(updatedSale.getTotalValue());
 
-            Sale updatedSaleEntity = saleRepository.save(sale);
-            return ResponseEntity.ok(updatedSaleEntity);
+            // The sale is managed, so the changes are flushed on commit without a merge.
+            salesRollupService.replace(previous, SaleContribution.of(sale));
+            salesSnapshot.put(sale);
+            saleOutbox.updated(sale);
+            changeTokenService.bump(ChangeTokenService.SALES);
+            return ResponseEntity.ok(SaleView.of(sale));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PatchMapping("/{id}")
+    @Transactional
+    public ResponseEntity<Object> patchSale(@PathVariable Long id, @RequestBody SalePatch patch) {
+        Optional<Sale> saleOptional = saleRepository.findById(id);
+        if (!saleOptional.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Venda com ID " + id + " não encontrada.");
+        }
+
+        if (patch.getSellerId() != null && !referenceIndex.sellerExists(patch.getSellerId())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Vendedor não encontrado.");
+        }
+        if (patch.getCustomerId() != null && !referenceIndex.customerExists(patch.getCustomerId())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cliente não encontrado.");
+        }
+
+        Sale sale = saleOptional.get();
+        SaleContribution previous = SaleContribution.of(sale);
+
+        if (patch.getSellerId() != null) {
+            sale.setSeller(sellerRepository.getReferenceById(patch.getSellerId()));
+        }
+        if (patch.getCustomerId() != null) {
+            sale.setCustomer(customerRepository.getReferenceById(patch.getCustomerId()));
+        }
+        if (patch.getProductId() != null) {
+            sale.setProductId(patch.getProductId());
+        }
+        if (patch.getProductName() != null) {
+            sale.setProductName(patch.getProductName());
+        }
+        if (patch.getProductPrice() != null) {
+            sale.setProductPrice(patch.getProductPrice());
+        }
+        if (patch.getProductQuantity() != null) {
+            sale.setProductQuantity(patch.getProductQuantity());
+        }
+
+        salesRollupService.replace(previous, SaleContribution.of(sale));
+        salesSnapshot.put(sale);
+        saleOutbox.updated(sale);
+        changeTokenService.bump(ChangeTokenService.SALES);
+        return ResponseEntity.ok(SaleView.of(sale));
+    }
+
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<String> deleteSale(@PathVariable Long id) {
+        Optional<Sale> sale = saleRepository.findById(id);
+        sale.ifPresent(s -> salesRollupService.remove(SaleContribution.of(s)));
         saleRepository.deleteById(id);
+        salesSnapshot.remove(id);
+        sale.ifPresent(s -> saleOutbox.deleted(id));
+        changeTokenService.bump(ChangeTokenService.SALES);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Venda com ID " + id + " foi deletada com sucesso.");
     }
-}
 
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,22 +1,49 @@
 package org.example.controller;
 
+import org.example.dto.SalaryStats;
+import org.example.dto.SalesStats;
 import org.example.model.Seller;
 import org.example.repository.SellerRepository;
+import org.example.service.ChangeTokenService;
+import org.example.service.ReferenceExistenceIndex;
+import org.example.service.SalaryStatistics;
+import org.example.service.SalesRollupService;
+import org.example.web.ScanEndpoint;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/sellers")
 public class SellerController {
+    private static final int MAX_TOP = 1000;
+
     @Autowired
     private SellerRepository sellerRepository;
+    @Autowired
+    private ReferenceExistenceIndex referenceIndex;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private ChangeTokenService changeTokenService;
+    @Autowired
+    private SalaryStatistics salaryStatistics;
 
     @GetMapping
-    public ResponseEntity<Object> getAllSellers() {
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getAllSellers(WebRequest request) {
+        if (request.checkNotModified(changeTokenService.etag(ChangeTokenService.SELLERS))) {
+            return null;
+        }
+
         List<Seller> sellers = sellerRepository.findAll();
 
         if (sellers.isEmpty()) {
@@ -28,13 +55,24 @@ public class SellerController {
 
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Object> createSeller(@RequestBody Seller seller) {
         sellerRepository.save(seller);
+        referenceIndex.addSeller(seller.getId());
+        salesRollupService.registerSeller(seller.getId());
+        salaryStatistics.put(seller.getId(), seller.getSalary());
+        changeTokenService.bump(ChangeTokenService.SELLERS);
         return ResponseEntity.status(HttpStatus.CREATED).body("Vendedor criado.");
     }
 
     @GetMapping("/sellerSalaries")
-    public ResponseEntity<Object> getSellerSalaries() {
+    @ScanEndpoint
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSellerSalaries(WebRequest request) {
+        if (request.checkNotModified(changeTokenService.etag(ChangeTokenService.SELLERS))) {
+            return null;
+        }
+
         List<Double> salaries = sellerRepository.findAllSalariesOrderBySalaryDesc();
 
         if (salaries.isEmpty()) {
@@ -45,11 +83,46 @@ public class SellerController {
         return ResponseEntity.ok(salaries);
     }
 
+    @GetMapping("/salaryStats")
+    public ResponseEntity<Object> getSalaryStats(@RequestParam(defaultValue = "10") int top,
+                                                 @RequestParam(defaultValue = "50,90,99") List<Double> percentiles) {
+        if (top < 0 || top > MAX_TOP) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("O parâmetro top deve estar entre 0 e " + MAX_TOP + ".");
+        }
+        if (percentiles.stream().anyMatch(p -> p == null || p < 0 || p > 100)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Os percentis devem estar entre 0 e 100.");
+        }
+
+        Optional<SalaryStats> stats = salaryStatistics.stats(top, percentiles);
+
+        if (stats.isPresent()) {
+            return ResponseEntity.ok(stats.get());
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Não há salários para exibir.");
+        }
+    }
+
+    @GetMapping("/{id}/stats")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSellerStats(@PathVariable Long id) {
+        Optional<SalesStats> stats = salesRollupService.getSellerStats(id);
+
+        if (stats.isPresent()) {
+            return ResponseEntity.ok(stats.get());
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Vendedor com ID " + id + " não encontrado.");
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getSellerById(@PathVariable Long id) {
-        Seller seller = sellerRepository.findById(id).orElse(null);
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getSellerById(@PathVariable Long id, WebRequest request) {
+        Seller seller = sellerRepository.findCachedById(id).orElse(null);
 
         if (seller != null) {
+            if (request.checkNotModified(String.valueOf(seller.getVersion()))) {
+                return null;
+            }
             return ResponseEntity.ok(seller);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Vendedor com ID " + id + " não encontrado.");
@@ -58,19 +131,29 @@ public class SellerController {
 
 
     @PutMapping("/{id}")
+    @CacheEvict(cacheNames = "sellers", key = "#id")
+    @Transactional
     public Seller updateSeller(@PathVariable Long id, @RequestBody Seller updatedSeller) {
         return sellerRepository.findById(id).map(seller -> {
             seller.setName(updatedSeller.getName());
             seller.setEmail(updatedSeller.getEmail());
             seller.setCpf(updatedSeller.getCpf());
             seller.setSalary(updatedSeller.getSalary());
-            return sellerRepository.save(seller);
+            Seller saved = sellerRepository.save(seller);
+            salaryStatistics.put(id, saved.getSalary());
+            changeTokenService.bump(ChangeTokenService.SELLERS);
+            return saved;
         }).orElse(null);
     }
 
     @DeleteMapping("/{id}")
+    @CacheEvict(cacheNames = "sellers", key = "#id")
+    @Transactional
     public ResponseEntity<String> deleteSeller(@PathVariable Long id) {
         sellerRepository.deleteById(id);
+        referenceIndex.removeSeller(id);
+        salaryStatistics.remove(id);
+        changeTokenService.bump(ChangeTokenService.SELLERS);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Vendedor com ID " + id + " foi deletado com sucesso.");
 
     }
@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BatchError {
+    private int index;
+    private String message;
+}
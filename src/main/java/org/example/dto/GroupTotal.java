@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class GroupTotal {
+    private Long id;
+    private long saleCount;
+    private long quantity;
+    private double revenue;
+}
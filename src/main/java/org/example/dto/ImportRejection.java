@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRejection {
+    private long row;
+    private String reason;
+}
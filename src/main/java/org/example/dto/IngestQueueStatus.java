@@ -0,0 +1,15 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IngestQueueStatus {
+    private int pending;
+    private int capacity;
+    private long accepted;
+    private long committed;
+    private long rejected;
+    private long failed;
+}
@@ -0,0 +1,8 @@
+package org.example.dto;
+
+public enum IngestState {
+    PENDING,
+    COMMITTED,
+    REJECTED,
+    FAILED
+}
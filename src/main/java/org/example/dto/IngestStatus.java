@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IngestStatus {
+    private String trackingId;
+    private IngestState state;
+    private Long saleId;
+    private String message;
+}
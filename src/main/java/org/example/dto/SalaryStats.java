@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class SalaryStats {
+    private int count;
+    private double min;
+    private double max;
+    private double mean;
+    private List<Double> top;
+    private Map<String, Double> percentiles;
+}
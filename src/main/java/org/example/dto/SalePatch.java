@@ -0,0 +1,19 @@
+package org.example.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Body of {@code PATCH /sales/{id}}. Only the fields present in the request are changed; the total
+ * value is recalculated from price and quantity.
+ */
+@Getter
+@Setter
+public class SalePatch {
+    private Long sellerId;
+    private Long customerId;
+    private Long productId;
+    private String productName;
+    private Double productPrice;
+    private Integer productQuantity;
+}
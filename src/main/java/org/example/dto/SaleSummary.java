@@ -0,0 +1,19 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SaleSummary {
+    private Long id;
+    private Long sellerId;
+    private String sellerName;
+    private Long customerId;
+    private String customerName;
+    private Long productId;
+    private String productName;
+    private Double productPrice;
+    private Integer productQuantity;
+    private Double totalValue;
+}
@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.model.Sale;
+
+import java.time.Instant;
+
+/**
+ * A sale as returned by PUT and PATCH: seller and customer by id only, so serializing the response
+ * never loads them.
+ */
+@Getter
+@AllArgsConstructor
+public class SaleView {
+    private Long id;
+    private Long sellerId;
+    private Long customerId;
+    private Long productId;
+    private String productName;
+    private Double productPrice;
+    private Integer productQuantity;
+    private Double totalValue;
+    private Instant createdAt;
+
+    public static SaleView of(Sale sale) {
+        return new SaleView(
+                sale.getId(),
+                sale.getSeller() != null ? sale.getSeller().getId() : null,
+                sale.getCustomer() != null ? sale.getCustomer().getId() : null,
+                sale.getProductId(),
+                sale.getProductName(),
+                sale.getProductPrice(),
+                sale.getProductQuantity(),
+                sale.getTotalValue(),
+                sale.getCreatedAt());
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SalesStats {
+    private long saleCount;
+    private double totalRevenue;
+    private double averageTicket;
+
+    public static SalesStats of(Long saleCount, Double totalRevenue) {
+        long count = saleCount != null ? saleCount : 0L;
+        double revenue = totalRevenue != null ? totalRevenue : 0.0;
+        return new SalesStats(count, revenue, count > 0 ? revenue / count : 0.0);
+    }
+}
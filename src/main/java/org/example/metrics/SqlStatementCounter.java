@@ -0,0 +1,31 @@
+package org.example.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so the number issued while
+ * handling a request can be recorded once it completes.
+ * <p>
+ * The count is a lower bound. Statements sent through {@code JdbcTemplate} (rollup deltas, the CSV
+ * export, bulk import {@code COPY}, retention) or R2DBC never reach Hibernate. Work a request hands
+ * to another thread is not counted either: {@code StreamingResponseBody} bodies such as
+ * {@code /sales/stream} and {@code /sales/export}, the async ingestion writer and the change feed
+ * relay.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
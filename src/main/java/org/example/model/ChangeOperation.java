@@ -0,0 +1,7 @@
+package org.example.model;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
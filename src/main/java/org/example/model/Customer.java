@@ -1,6 +1,7 @@
 package org.example.model;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -8,9 +9,9 @@ import lombok.Setter;
 import javax.persistence.*;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Customer {
     @Id
@@ -21,5 +22,16 @@ public class Customer {
     private String email;
     private String cpf;
     private String address;
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    public Customer(Long id, String name, String email, String cpf, String address) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.cpf = cpf;
+        this.address = address;
+    }
 }
 
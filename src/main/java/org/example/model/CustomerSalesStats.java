@@ -0,0 +1,22 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "customer_sales_stats")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerSalesStats {
+    @Id
+    @Column(name = "id_customer")
+    private Long customerId;
+    private Long saleCount;
+    private Double totalRevenue;
+}
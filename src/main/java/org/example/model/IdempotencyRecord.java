@@ -0,0 +1,57 @@
+package org.example.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Claim and, once the request finished, stored response for one idempotency key. A record without
+ * status is still being processed by the request holding the {@code owner} token.
+ */
+@Entity
+@Table(name = "idempotency_key")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    @Column(name = "idempotency_key", length = 512)
+    private String idempotencyKey;
+    private String requestHash;
+    private String owner;
+    private Integer status;
+    private String contentType;
+    @Column(length = 1048576)
+    private byte[] body;
+    private Instant createdAt;
+    // Always inserted, never merged, so a concurrent duplicate fails on the primary key.
+    @Transient
+    private boolean persisted;
+
+    public IdempotencyRecord(String idempotencyKey, String requestHash, String owner, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.owner = owner;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -1,16 +1,25 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
+import java.time.Instant;
 
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_sale_total_value", columnList = "total_value"),
+        @Index(name = "idx_sale_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 public class Sale {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_id_seq")
+    @SequenceGenerator(name = "sale_id_seq", sequenceName = "sale_id_sale_seq", allocationSize = 50)
     @Column(name = "id_sale")
     private Long id;
     @ManyToOne
@@ -23,7 +32,21 @@ public class Sale {
     private String productName;
     private Double productPrice;
     private Integer productQuantity;
+    @Column(name = "total_value")
     private Double totalValue;
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdAt;
+
+    @PrePersist
+    private void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
 
     public void setProductQuantity(Integer productQuantity) {
         this.productQuantity = productQuantity;
@@ -0,0 +1,64 @@
+package org.example.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Outbox row describing one change to a sale, with the sale's state after the change (only the id
+ * for deletions). The feed position is assigned when the writing transaction commits.
+ */
+@Entity
+@Table(name = "sale_change", indexes = @Index(name = "idx_sale_change_position", columnList = "feed_position"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SaleChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_change_id_seq")
+    @SequenceGenerator(name = "sale_change_id_seq", sequenceName = "sale_change_id_seq", allocationSize = 50)
+    @JsonIgnore
+    private Long id;
+    @Column(name = "feed_position")
+    private Long position;
+    private Long saleId;
+    @Enumerated(EnumType.STRING)
+    private ChangeOperation operation;
+    private Long sellerId;
+    private Long customerId;
+    private Long productId;
+    private String productName;
+    private Double productPrice;
+    private Integer productQuantity;
+    private Double totalValue;
+    private Long version;
+    private Instant changedAt;
+
+    public static SaleChange of(Sale sale, ChangeOperation operation, Instant changedAt) {
+        SaleChange change = new SaleChange();
+        change.setSaleId(sale.getId());
+        change.setOperation(operation);
+        change.setSellerId(sale.getSeller() != null ? sale.getSeller().getId() : null);
+        change.setCustomerId(sale.getCustomer() != null ? sale.getCustomer().getId() : null);
+        change.setProductId(sale.getProductId());
+        change.setProductName(sale.getProductName());
+        change.setProductPrice(sale.getProductPrice());
+        change.setProductQuantity(sale.getProductQuantity());
+        change.setTotalValue(sale.getTotalValue());
+        change.setVersion(sale.getVersion());
+        change.setChangedAt(changedAt);
+        return change;
+    }
+
+    public static SaleChange deleted(Long saleId, Instant changedAt) {
+        SaleChange change = new SaleChange();
+        change.setSaleId(saleId);
+        change.setOperation(ChangeOperation.DELETED);
+        change.setChangedAt(changedAt);
+        return change;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "sale_maintenance_job")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SaleMaintenanceJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_job")
+    private Long id;
+    private String type;
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+    private Long lastId;
+    private Long maxId;
+    private Long updatedRows;
+    private Integer batchSize;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -1,6 +1,7 @@
 package org.example.model;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -8,9 +9,9 @@ import lombok.Setter;
 import javax.persistence.*;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Seller {
     @Id
@@ -21,6 +22,15 @@ public class Seller {
     private String email;
     private String cpf;
     private Double salary;
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 
+    public Seller(Long id, String name, String email, String cpf, Double salary) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.cpf = cpf;
+        this.salary = salary;
+    }
 }
-
@@ -0,0 +1,22 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "seller_sales_stats")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SellerSalesStats {
+    @Id
+    @Column(name = "id_seller")
+    private Long sellerId;
+    private Long saleCount;
+    private Double totalRevenue;
+}
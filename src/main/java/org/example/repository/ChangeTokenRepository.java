@@ -0,0 +1,24 @@
+package org.example.repository;
+
+import org.example.model.ChangeToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChangeTokenRepository extends JpaRepository<ChangeToken, ChangeToken.Key> {
+    @Modifying
+    @Query("UPDATE ChangeToken t SET t.version = t.version + 1 WHERE t.name = :name AND t.stripe = :stripe")
+    int increment(@Param("name") String name, @Param("stripe") Integer stripe);
+
+    @Query("SELECT t.name, SUM(t.version) FROM ChangeToken t WHERE t.name IN :names GROUP BY t.name")
+    List<Object[]> sumVersions(@Param("names") Collection<String> names);
+
+    @Query("SELECT t.stripe FROM ChangeToken t WHERE t.name = :name")
+    List<Integer> findStripes(@Param("name") String name);
+}
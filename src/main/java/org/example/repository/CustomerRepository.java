@@ -1,11 +1,34 @@
 package org.example.repository;
 
 import org.example.model.Customer;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     long countByEmailContaining(String email);
-}
 
+    List<Customer> findByEmailContainingAndIdGreaterThanOrderByIdAsc(String email, Long id, Pageable pageable);
+
+    // Loaded from the primary in a transaction of its own: a lagging replica could return the row
+    // an update just evicted, or nothing for a row just created, and that would stay cached.
+    @Cacheable(cacheNames = "customers", unless = "#result == null")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    Optional<Customer> findCachedById(Long id);
+
+    @Query("SELECT c.id FROM Customer c")
+    List<Long> findAllIds();
+
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
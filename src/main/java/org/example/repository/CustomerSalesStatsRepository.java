@@ -0,0 +1,18 @@
+package org.example.repository;
+
+import org.example.model.CustomerSalesStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerSalesStatsRepository extends JpaRepository<CustomerSalesStats, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO customer_sales_stats (id_customer, sale_count, total_revenue) " +
+            "VALUES (:customerId, :count, :revenue) " +
+            "ON CONFLICT (id_customer) DO UPDATE SET sale_count = customer_sales_stats.sale_count + EXCLUDED.sale_count, " +
+            "total_revenue = customer_sales_stats.total_revenue + EXCLUDED.total_revenue", nativeQuery = true)
+    int upsertDelta(@Param("customerId") Long customerId, @Param("count") long count, @Param("revenue") double revenue);
+}
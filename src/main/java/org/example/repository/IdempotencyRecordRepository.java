@@ -0,0 +1,38 @@
+package org.example.repository;
+
+import org.example.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, r.body = :body " +
+            "WHERE r.idempotencyKey = :key AND r.owner = :owner AND r.status IS NULL")
+    @Transactional
+    int complete(@Param("key") String key, @Param("owner") String owner, @Param("status") Integer status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.owner = :owner, r.createdAt = :now " +
+            "WHERE r.idempotencyKey = :key AND r.status IS NULL AND r.createdAt < :staleBefore")
+    @Transactional
+    int takeOver(@Param("key") String key, @Param("owner") String owner, @Param("now") Instant now,
+                 @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.owner = :owner AND r.status IS NULL")
+    @Transactional
+    int release(@Param("key") String key, @Param("owner") String owner);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    @Transactional
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,30 @@
+package org.example.repository;
+
+import org.example.model.Customer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link CustomerRepository} for read endpoints, backed by R2DBC.
+ */
+@Repository
+public class ReactiveCustomerRepository {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Customer> findAfter(Long after, int limit) {
+        return databaseClient.sql("SELECT id_customer, name, email, cpf, address, version FROM customer " +
+                        "WHERE id_customer > :after ORDER BY id_customer LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map((row, metadata) -> {
+                    Customer customer = new Customer(row.get("id_customer", Long.class), row.get("name", String.class),
+                            row.get("email", String.class), row.get("cpf", String.class), row.get("address", String.class));
+                    customer.setVersion(row.get("version", Long.class));
+                    return customer;
+                })
+                .all();
+    }
+}
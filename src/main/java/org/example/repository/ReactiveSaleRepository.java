@@ -0,0 +1,39 @@
+package org.example.repository;
+
+import org.example.dto.SaleSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link SaleRepository} for read endpoints, backed by R2DBC.
+ */
+@Repository
+public class ReactiveSaleRepository {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<SaleSummary> findSummariesAfter(Long after, int limit) {
+        return databaseClient.sql("SELECT s.id_sale, se.id_seller, se.name AS seller_name, c.id_customer, " +
+                        "c.name AS customer_name, s.product_id, s.product_name, s.product_price, s.product_quantity, " +
+                        "s.total_value FROM sale s " +
+                        "LEFT JOIN seller se ON se.id_seller = s.id_seller " +
+                        "LEFT JOIN customer c ON c.id_customer = s.id_customer " +
+                        "WHERE s.id_sale > :after ORDER BY s.id_sale LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map((row, metadata) -> new SaleSummary(
+                        row.get("id_sale", Long.class),
+                        row.get("id_seller", Long.class),
+                        row.get("seller_name", String.class),
+                        row.get("id_customer", Long.class),
+                        row.get("customer_name", String.class),
+                        row.get("product_id", Long.class),
+                        row.get("product_name", String.class),
+                        row.get("product_price", Double.class),
+                        row.get("product_quantity", Integer.class),
+                        row.get("total_value", Double.class)))
+                .all();
+    }
+}
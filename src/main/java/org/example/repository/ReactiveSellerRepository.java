@@ -0,0 +1,30 @@
+package org.example.repository;
+
+import org.example.model.Seller;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link SellerRepository} for read endpoints, backed by R2DBC.
+ */
+@Repository
+public class ReactiveSellerRepository {
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Seller> findAfter(Long after, int limit) {
+        return databaseClient.sql("SELECT id_seller, name, email, cpf, salary, version FROM seller " +
+                        "WHERE id_seller > :after ORDER BY id_seller LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map((row, metadata) -> {
+                    Seller seller = new Seller(row.get("id_seller", Long.class), row.get("name", String.class),
+                            row.get("email", String.class), row.get("cpf", String.class), row.get("salary", Double.class));
+                    seller.setVersion(row.get("version", Long.class));
+                    return seller;
+                })
+                .all();
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.repository;
+
+import org.example.model.SaleChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface SaleChangeRepository extends JpaRepository<SaleChange, Long> {
+    List<SaleChange> findByPositionGreaterThanOrderByPositionAsc(Long position, Pageable pageable);
+
+    @Query("SELECT MAX(c.position) FROM SaleChange c")
+    Long findMaxPosition();
+
+    @Query("SELECT MIN(c.id) FROM SaleChange c WHERE c.position IS NULL")
+    Long findFirstUnpositionedId();
+
+    // Rows committed after firstId was read but with a smaller id are left for the next call.
+    @Modifying
+    @Query("UPDATE SaleChange c SET c.position = :after + c.id - :firstId + 1 " +
+            "WHERE c.position IS NULL AND c.id >= :firstId")
+    int assignPositions(@Param("after") Long after, @Param("firstId") Long firstId);
+
+    /**
+     * Numbers the committed rows that have no position yet after every numbered row. Only the feed
+     * relay calls this; if a relay on another instance numbers rows at the same moment, one of the
+     * two fails on the unique position index and retries on its next poll.
+     */
+    @Transactional
+    default int positionCommitted() {
+        Long firstId = findFirstUnpositionedId();
+        if (firstId == null) {
+            return 0;
+        }
+        Long last = findMaxPosition();
+        return assignPositions(last != null ? last : 0L, firstId);
+    }
+
+    @Modifying
+    @Query("DELETE FROM SaleChange c WHERE c.changedAt < :before")
+    @Transactional
+    int deleteChangedBefore(@Param("before") Instant before);
+}
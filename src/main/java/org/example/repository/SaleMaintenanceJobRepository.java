@@ -0,0 +1,13 @@
+package org.example.repository;
+
+import org.example.model.JobStatus;
+import org.example.model.SaleMaintenanceJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SaleMaintenanceJobRepository extends JpaRepository<SaleMaintenanceJob, Long> {
+    List<SaleMaintenanceJob> findByTypeAndStatus(String type, JobStatus status);
+}
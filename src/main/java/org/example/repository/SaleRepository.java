@@ -1,20 +1,87 @@
 package org.example.repository;
 
+import org.example.dto.SaleSummary;
 import org.example.model.Sale;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"seller", "customer"})
+    List<Sale> findAll();
+
+    @EntityGraph(attributePaths = {"seller", "customer"})
     List<Sale> findByTotalValueGreaterThan(Double value);
+
+    @EntityGraph(attributePaths = {"seller", "customer"})
+    List<Sale> findByTotalValueBetween(Double min, Double max, Pageable pageable);
+
+    long countByTotalValueBetween(Double min, Double max);
+
+    @Query("SELECT COALESCE(SUM(s.totalValue), 0) FROM Sale s WHERE s.totalValue BETWEEN :min AND :max")
+    Double sumTotalValueBetween(@Param("min") Double min, @Param("max") Double max);
+
+    @EntityGraph(attributePaths = {"seller", "customer"})
+    List<Sale> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"seller", "customer"})
+    List<Sale> findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(Instant from, Instant to, Pageable pageable);
+
+    @Query("SELECT COUNT(s), SUM(s.totalValue) FROM Sale s WHERE s.createdAt >= :from AND s.createdAt < :to")
+    List<Object[]> summarizeCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Sale s LEFT JOIN FETCH s.seller LEFT JOIN FETCH s.customer ORDER BY s.id")
+    Stream<Sale> streamAll();
+
+    @Query("SELECT new org.example.dto.SaleSummary(s.id, se.id, se.name, c.id, c.name, s.productId, " +
+            "s.productName, s.productPrice, s.productQuantity, s.totalValue) " +
+            "FROM Sale s LEFT JOIN s.seller se LEFT JOIN s.customer c " +
+            "WHERE s.id > :after ORDER BY s.id")
+    List<SaleSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT s FROM Sale s LEFT JOIN FETCH s.seller LEFT JOIN FETCH s.customer WHERE s.id IN :ids")
+    List<Sale> findAllWithAssociationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s.id, s.seller.id, s.customer.id, s.productId, s.productPrice, s.productQuantity, s.totalValue " +
+            "FROM Sale s WHERE s.id > :after ORDER BY s.id")
+    List<Object[]> findSnapshotRowsAfter(@Param("after") Long after, Pageable pageable);
+
     @Modifying
-    @Query("UPDATE Sale s SET s.totalValue = 0 WHERE s.totalValue IS NULL")
+    @Query("UPDATE Sale s SET s.totalValue = 0, s.version = s.version + 1 WHERE s.totalValue IS NULL")
     @Transactional
     void updateTotalValueToZero();
-}
 
+    @Query("SELECT s.id FROM Sale s WHERE s.totalValue IS NULL AND s.id > :fromId AND s.id <= :toId")
+    List<Long> findIdsWithoutTotalValueBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Query("UPDATE Sale s SET s.totalValue = 0, s.version = s.version + 1 " +
+            "WHERE s.totalValue IS NULL AND s.id > :fromId AND s.id <= :toId")
+    int updateTotalValueToZeroBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT MAX(s.id) FROM Sale s")
+    Long findMaxId();
+
+    // A sale is returned with its seller and customer embedded, so their versions are part of its ETag.
+    @Query("SELECT CONCAT(str(s.version), '-', str(COALESCE(se.version, 0)), '-', str(COALESCE(c.version, 0))) " +
+            "FROM Sale s LEFT JOIN s.seller se LEFT JOIN s.customer c WHERE s.id = :id")
+    Optional<String> findEtagById(@Param("id") Long id);
+}
@@ -1,15 +1,38 @@
 package org.example.repository;
 
 import org.example.model.Seller;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SellerRepository extends JpaRepository<Seller, Long> {
     @Query("SELECT s.salary FROM Seller s ORDER BY s.salary DESC")
     List<Double> findAllSalariesOrderBySalaryDesc();
-}
 
+    // Loaded from the primary in a transaction of its own: a lagging replica could return the row
+    // an update just evicted, or nothing for a row just created, and that would stay cached.
+    @Cacheable(cacheNames = "sellers", unless = "#result == null")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    Optional<Seller> findCachedById(Long id);
+
+    @Query("SELECT s.id FROM Seller s")
+    List<Long> findAllIds();
+
+    // Read from the primary like findCachedById: SalaryStatistics applies committed writes on top
+    // of this snapshot, so one a lagging replica has not replayed yet would be lost until restart.
+    @Query("SELECT s.id, s.salary FROM Seller s WHERE s.salary IS NOT NULL")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    List<Object[]> findAllIdsAndSalaries();
+
+    @Query("SELECT s.id FROM Seller s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
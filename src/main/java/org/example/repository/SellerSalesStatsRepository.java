@@ -0,0 +1,18 @@
+package org.example.repository;
+
+import org.example.model.SellerSalesStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SellerSalesStatsRepository extends JpaRepository<SellerSalesStats, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO seller_sales_stats (id_seller, sale_count, total_revenue) " +
+            "VALUES (:sellerId, :count, :revenue) " +
+            "ON CONFLICT (id_seller) DO UPDATE SET sale_count = seller_sales_stats.sale_count + EXCLUDED.sale_count, " +
+            "total_revenue = seller_sales_stats.total_revenue + EXCLUDED.total_revenue", nativeQuery = true)
+    int upsertDelta(@Param("sellerId") Long sellerId, @Param("count") long count, @Param("revenue") double revenue);
+}
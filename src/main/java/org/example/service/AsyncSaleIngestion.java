@@ -0,0 +1,215 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.dto.BatchError;
+import org.example.dto.BatchResult;
+import org.example.dto.IngestQueueStatus;
+import org.example.dto.IngestState;
+import org.example.dto.IngestStatus;
+import org.example.model.Sale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind sale ingestion. Accepted sales wait in a bounded queue of
+ * {@code sales.ingest.queue-capacity} entries and a single writer commits them through
+ * {@link SaleBatchService} in one transaction per batch. A batch is flushed once it reaches
+ * {@code sales.ingest.flush-size} sales or its oldest sale has waited
+ * {@code sales.ingest.flush-interval-ms}, which bounds both the latency and how many accepted
+ * sales a crash can lose. When the queue is full new sales are refused instead of waiting.
+ */
+@Service
+public class AsyncSaleIngestion {
+    private static final Logger log = LoggerFactory.getLogger(AsyncSaleIngestion.class);
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sale-ingest-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Value("${sales.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${sales.ingest.flush-size:500}")
+    private int flushSize;
+    @Value("${sales.ingest.flush-interval-ms:20}")
+    private long flushIntervalMs;
+    @Value("${sales.ingest.status-ttl:10m}")
+    private Duration statusTtl;
+
+    private BlockingQueue<QueuedSale> queue;
+    private Cache<String, IngestStatus> statuses;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        flushSize = Math.max(1, Math.min(flushSize, SaleBatchService.MAX_BATCH_SIZE));
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(Math.max(100000L, queueCapacity * 10L))
+                .build();
+        running = true;
+        writer.execute(this::drain);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Stopped with {} queued sales not written", queue.size());
+            writer.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a sale whose seller and customer were already checked. Returns the tracking id, or
+     * empty when the queue is full or shutting down.
+     */
+    public Optional<String> submit(Sale sale) {
+        if (!running) {
+            return Optional.empty();
+        }
+
+        String trackingId = UUID.randomUUID().toString();
+        IngestStatus status = new IngestStatus(trackingId, IngestState.PENDING, null, null);
+        statuses.put(trackingId, status);
+        if (!queue.offer(new QueuedSale(trackingId, sale))) {
+            statuses.invalidate(trackingId);
+            return Optional.empty();
+        }
+
+        accepted.incrementAndGet();
+        return Optional.of(trackingId);
+    }
+
+    public Optional<IngestStatus> status(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    public IngestQueueStatus queueStatus() {
+        return new IngestQueueStatus(queue.size() + inFlight.get(), queueCapacity, accepted.get(), committed.get(),
+                rejected.get(), failed.get());
+    }
+
+    private void drain() {
+        List<QueuedSale> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedSale first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0) {
+                        break;
+                    }
+                    QueuedSale next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                inFlight.set(batch.size());
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+                inFlight.set(0);
+            }
+        }
+    }
+
+    private void write(List<QueuedSale> batch) {
+        List<Sale> sales = new ArrayList<>(batch.size());
+        for (QueuedSale queued : batch) {
+            sales.add(queued.sale);
+        }
+
+        BatchResult result;
+        try {
+            result = saleBatchService.insertAll(sales);
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad sale rolls back the whole group; retry one by one so only that one fails.
+                log.warn("Group commit of {} sales failed, retrying individually", batch.size(), e);
+                for (QueuedSale queued : batch) {
+                    queued.sale.setVersion(null);
+                    write(Collections.singletonList(queued));
+                }
+            } else {
+                log.error("Could not write queued sale {}", batch.get(0).trackingId, e);
+                failed.incrementAndGet();
+                resolve(batch.get(0), IngestState.FAILED, null, e.getMessage());
+            }
+            return;
+        }
+
+        Map<Integer, String> errors = new HashMap<>();
+        for (BatchError error : result.getErrors()) {
+            errors.put(error.getIndex(), error.getMessage());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors.containsKey(i)) {
+                rejected.incrementAndGet();
+                resolve(batch.get(i), IngestState.REJECTED, null, errors.get(i));
+            } else {
+                committed.incrementAndGet();
+                resolve(batch.get(i), IngestState.COMMITTED, batch.get(i).sale.getId(), null);
+            }
+        }
+    }
+
+    private void resolve(QueuedSale queued, IngestState state, Long saleId, String message) {
+        statuses.put(queued.trackingId, new IngestStatus(queued.trackingId, state, saleId, message));
+    }
+
+    private static class QueuedSale {
+        private final String trackingId;
+        private final Sale sale;
+
+        QueuedSale(String trackingId, Sale sale) {
+            this.trackingId = trackingId;
+            this.sale = sale;
+        }
+    }
+}
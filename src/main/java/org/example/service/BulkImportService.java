@@ -0,0 +1,254 @@
+package org.example.service;
+
+import org.example.dto.ImportRejection;
+import org.example.dto.ImportResult;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Loads CSV uploads with PostgreSQL {@code COPY} into a temporary staging table of text columns,
+ * checks every row in one set-wise pass (number formats, column lengths and, for sales, seller and
+ * customer existence through joins on {@code id_seller}/{@code id_customer}), then inserts the valid
+ * rows with a single {@code INSERT ... SELECT}. Rejected rows, malformed CSV lines included, are reported
+ * by their position in the file, counting data rows only. Each import runs in one transaction; staging tables are dropped on
+ * commit.
+ */
+@Service
+@Transactional
+public class BulkImportService {
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private static final String ID = "'^[0-9]{1,18}$'";
+    private static final String INTEGER = "'^-?[0-9]{1,9}$'";
+    private static final String DECIMAL = "'^-?[0-9]{1,15}(\\.[0-9]+)?$'";
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final String MALFORMED = "'Linha CSV malformada.'";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    // Matches allocationSize on Sale and SaleChange and the INCREMENT BY of their sequences.
+    private static final int ID_BLOCK = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReferenceExistenceIndex referenceIndex;
+    @Autowired
+    private SalesSnapshot salesSnapshot;
+    @Autowired
+    private ChangeTokenService changeTokenService;
+    @Autowired
+    private SalaryStatistics salaryStatistics;
+    @Autowired
+    private SaleOutbox saleOutbox;
+
+    public ImportResult importCustomers(InputStream csv) {
+        jdbcTemplate.execute("CREATE TEMP TABLE customer_import (row_number BIGINT, malformed BOOLEAN, name TEXT, email TEXT, " +
+                "cpf TEXT, address TEXT) ON COMMIT DROP");
+        copy("customer_import", csv, "name", "email", "cpf", "address");
+        jdbcTemplate.execute("CREATE TEMP TABLE customer_import_checked ON COMMIT DROP AS " +
+                "SELECT i.*, CASE WHEN i.malformed THEN " + MALFORMED + " " +
+                "WHEN " + tooLong("i.name", "i.email", "i.cpf", "i.address") +
+                " THEN 'Campo com mais de " + MAX_TEXT_LENGTH + " caracteres.' END AS reason " +
+                "FROM customer_import i");
+
+        List<Long> ids = jdbcTemplate.queryForList("WITH inserted AS (" +
+                "INSERT INTO customer (name, email, cpf, address, version) " +
+                "SELECT name, email, cpf, address, 0 FROM customer_import_checked WHERE reason IS NULL ORDER BY row_number " +
+                "RETURNING id_customer), " +
+                "stats AS (INSERT INTO customer_sales_stats (id_customer, sale_count, total_revenue) " +
+                "SELECT id_customer, 0, 0 FROM inserted ON CONFLICT DO NOTHING) " +
+                "SELECT id_customer FROM inserted", Long.class);
+        ids.forEach(referenceIndex::addCustomer);
+        if (!ids.isEmpty()) {
+            changeTokenService.bump(ChangeTokenService.CUSTOMERS);
+        }
+
+        return result(ids.size(), "customer_import_checked");
+    }
+
+    public ImportResult importSellers(InputStream csv) {
+        jdbcTemplate.execute("CREATE TEMP TABLE seller_import (row_number BIGINT, malformed BOOLEAN, name TEXT, email TEXT, " +
+                "cpf TEXT, salary TEXT) ON COMMIT DROP");
+        copy("seller_import", csv, "name", "email", "cpf", "salary");
+        jdbcTemplate.execute("CREATE TEMP TABLE seller_import_checked ON COMMIT DROP AS " +
+                "SELECT i.*, CASE " +
+                "WHEN i.malformed THEN " + MALFORMED + " " +
+                "WHEN i.salary !~ " + DECIMAL + " THEN 'Valor numérico inválido.' " +
+                "WHEN " + tooLong("i.name", "i.email", "i.cpf") +
+                " THEN 'Campo com mais de " + MAX_TEXT_LENGTH + " caracteres.' END AS reason " +
+                "FROM seller_import i");
+
+        List<Long> ids = jdbcTemplate.queryForList("WITH inserted AS (" +
+                "INSERT INTO seller (name, email, cpf, salary, version) " +
+                "SELECT name, email, cpf, salary::double precision, 0 FROM seller_import_checked WHERE reason IS NULL " +
+                "ORDER BY row_number RETURNING id_seller), " +
+                "stats AS (INSERT INTO seller_sales_stats (id_seller, sale_count, total_revenue) " +
+                "SELECT id_seller, 0, 0 FROM inserted ON CONFLICT DO NOTHING) " +
+                "SELECT id_seller FROM inserted", Long.class);
+        ids.forEach(referenceIndex::addSeller);
+        if (!ids.isEmpty()) {
+            changeTokenService.bump(ChangeTokenService.SELLERS);
+            afterCommit(salaryStatistics::reload);
+        }
+
+        return result(ids.size(), "seller_import_checked");
+    }
+
+    public ImportResult importSales(InputStream csv) {
+        jdbcTemplate.execute("CREATE TEMP TABLE sale_import (row_number BIGINT, malformed BOOLEAN, id_seller TEXT, id_customer TEXT, " +
+                "product_id TEXT, product_name TEXT, product_price TEXT, product_quantity TEXT) ON COMMIT DROP");
+        copy("sale_import", csv, "id_seller", "id_customer", "product_id", "product_name", "product_price",
+                "product_quantity");
+        // The casts in the join conditions are guarded, so malformed ids simply find no match.
+        jdbcTemplate.execute("CREATE TEMP TABLE sale_import_checked ON COMMIT DROP AS " +
+                "SELECT i.*, CASE " +
+                "WHEN i.malformed THEN " + MALFORMED + " " +
+                "WHEN i.id_seller !~ " + ID + " OR i.id_customer !~ " + ID + " OR i.product_id !~ " + ID +
+                " OR i.product_price !~ " + DECIMAL + " OR i.product_quantity !~ " + INTEGER +
+                " THEN 'Valor numérico inválido.' " +
+                "WHEN " + tooLong("i.product_name") + " THEN 'Campo com mais de " + MAX_TEXT_LENGTH + " caracteres.' " +
+                "WHEN se.id_seller IS NULL THEN 'Vendedor não encontrado.' " +
+                "WHEN c.id_customer IS NULL THEN 'Cliente não encontrado.' END AS reason " +
+                "FROM sale_import i " +
+                "LEFT JOIN seller se ON se.id_seller = CASE WHEN i.id_seller ~ " + ID + " THEN i.id_seller::bigint END " +
+                "LEFT JOIN customer c ON c.id_customer = CASE WHEN i.id_customer ~ " + ID + " THEN i.id_customer::bigint END");
+
+        // Ids are taken from the sequences the way Hibernate's pooled optimizer takes them: each nextval
+        // reserves the block of ID_BLOCK ids ending at the returned value, so the import calls it once per
+        // block and the ids never collide with the ones application inserts hand out.
+        Long imported = jdbcTemplate.queryForObject("WITH valid AS (" +
+                "SELECT c.*, row_number() OVER (ORDER BY c.row_number) - 1 AS position " +
+                "FROM sale_import_checked c WHERE c.reason IS NULL), " +
+                "sale_blocks AS (" + idBlocks("sale_id_sale_seq") + "), " +
+                "change_blocks AS (" + idBlocks("sale_change_id_seq") + "), " +
+                "inserted AS (" +
+                "INSERT INTO sale (id_sale, id_seller, id_customer, product_id, product_name, product_price, " +
+                "product_quantity, total_value, version, created_at) " +
+                "SELECT b.first_id + v.position % " + ID_BLOCK + ", v.id_seller::bigint, v.id_customer::bigint, " +
+                "v.product_id::bigint, v.product_name, v.product_price::double precision, " +
+                "v.product_quantity::integer, v.product_price::double precision * v.product_quantity::integer, 0, now() " +
+                "FROM valid v JOIN sale_blocks b ON b.block = v.position / " + ID_BLOCK + " ORDER BY v.position " +
+                "RETURNING id_sale, id_seller, id_customer, product_id, product_name, product_price, " +
+                "product_quantity, total_value, version), " +
+                "seller_stats AS (INSERT INTO seller_sales_stats (id_seller, sale_count, total_revenue) " +
+                "SELECT id_seller, COUNT(*), COALESCE(SUM(total_value), 0) FROM inserted GROUP BY id_seller ORDER BY id_seller " +
+                "ON CONFLICT (id_seller) DO UPDATE SET sale_count = seller_sales_stats.sale_count + EXCLUDED.sale_count, " +
+                "total_revenue = seller_sales_stats.total_revenue + EXCLUDED.total_revenue), " +
+                "customer_stats AS (INSERT INTO customer_sales_stats (id_customer, sale_count, total_revenue) " +
+                "SELECT id_customer, COUNT(*), COALESCE(SUM(total_value), 0) FROM inserted GROUP BY id_customer ORDER BY id_customer " +
+                "ON CONFLICT (id_customer) DO UPDATE SET sale_count = customer_sales_stats.sale_count + EXCLUDED.sale_count, " +
+                "total_revenue = customer_sales_stats.total_revenue + EXCLUDED.total_revenue), " +
+                "outbox AS (INSERT INTO sale_change (id, sale_id, operation, seller_id, customer_id, product_id, " +
+                "product_name, product_price, product_quantity, total_value, version, changed_at) " +
+                "SELECT b.first_id + n.position % " + ID_BLOCK + ", n.id_sale, 'CREATED', n.id_seller, n.id_customer, " +
+                "n.product_id, n.product_name, n.product_price, n.product_quantity, n.total_value, n.version, now() " +
+                "FROM (SELECT inserted.*, row_number() OVER (ORDER BY id_sale) - 1 AS position FROM inserted) n " +
+                "JOIN change_blocks b ON b.block = n.position / " + ID_BLOCK + ") " +
+                "SELECT COUNT(*) FROM inserted", Long.class);
+
+        if (imported != null && imported > 0) {
+            changeTokenService.bump(ChangeTokenService.SALES);
+            saleOutbox.appendedBySql();
+            afterCommit(salesSnapshot::reload);
+        }
+
+        return result(imported != null ? imported : 0, "sale_import_checked");
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Streams the upload into the staging table, numbering data rows as it goes. Records that are not
+     * valid CSV or have the wrong number of fields are staged as {@code malformed} rows with no values,
+     * so they are rejected like any other row instead of failing the whole {@code COPY}.
+     */
+    private void copy(String table, InputStream csv, String... columns) {
+        String sql = "COPY " + table + " (row_number, malformed, " + String.join(", ", columns) + ") " +
+                "FROM STDIN WITH (FORMAT csv)";
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                CsvRecordReader records = new CsvRecordReader(
+                        new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+                records.read();
+                StringBuilder buffer = new StringBuilder();
+                long rowNumber = 0;
+                for (List<String> fields = records.read(); fields != null; fields = records.read()) {
+                    boolean malformed = fields.size() != columns.length;
+                    buffer.append(++rowNumber).append(',').append(malformed);
+                    for (int i = 0; i < columns.length; i++) {
+                        buffer.append(',');
+                        String value = malformed ? null : fields.get(i);
+                        if (value != null) {
+                            buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+                        }
+                    }
+                    buffer.append('\n');
+                    if (buffer.length() >= COPY_BUFFER_SIZE) {
+                        write(copyIn, buffer);
+                    }
+                }
+                write(copyIn, buffer);
+                return copyIn.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private ImportResult result(long imported, String checkedTable) {
+        Long rejected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + checkedTable + " WHERE reason IS NOT NULL", Long.class);
+        List<ImportRejection> rejections = jdbcTemplate.query("SELECT row_number, reason FROM " + checkedTable +
+                        " WHERE reason IS NOT NULL ORDER BY row_number LIMIT " + MAX_REPORTED_REJECTIONS,
+                (resultSet, rowNum) -> new ImportRejection(resultSet.getLong(1), resultSet.getString(2)));
+        return new ImportResult(imported, rejected != null ? rejected : 0, rejections);
+    }
+
+    private static String tooLong(String... columns) {
+        StringBuilder condition = new StringBuilder();
+        for (String column : columns) {
+            if (condition.length() > 0) {
+                condition.append(" OR ");
+            }
+            condition.append("length(").append(column).append(") > ").append(MAX_TEXT_LENGTH);
+        }
+        return condition.toString();
+    }
+
+    private static String idBlocks(String sequence) {
+        return "SELECT block, nextval('" + sequence + "') - " + (ID_BLOCK - 1) + " AS first_id " +
+                "FROM generate_series(0, (SELECT (COUNT(*) + " + (ID_BLOCK - 1) + ") / " + ID_BLOCK + " - 1 FROM valid)) AS block";
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.service;
+
+import org.example.model.ChangeToken;
+import org.example.repository.ChangeTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Table-level change counters behind the ETags of the list endpoints. A write transaction bumps the
+ * token of every table it touched once, just before it commits, so the bump becomes visible together
+ * with the data. Each token is spread over {@link #STRIPES} rows and a transaction increments one at
+ * random, so concurrent writers to a table do not all queue on one row lock; the token is the sum of
+ * the stripes. Tables are bumped in name order, one stripe each, so two writers cannot deadlock.
+ */
+@Service
+@Transactional
+public class ChangeTokenService {
+    private static final Logger log = LoggerFactory.getLogger(ChangeTokenService.class);
+
+    public static final int STRIPES = 16;
+    public static final String SALES = "sale";
+    public static final String SELLERS = "seller";
+    public static final String CUSTOMERS = "customer";
+
+    @Autowired
+    private ChangeTokenRepository changeTokenRepository;
+
+    public void bump(String table) {
+        @SuppressWarnings("unchecked")
+        Set<String> touched = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (touched == null) {
+            Set<String> tables = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, tables);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    tables.forEach(ChangeTokenService.this::increment);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ChangeTokenService.this);
+                }
+            });
+            touched = tables;
+        }
+        touched.add(table);
+    }
+
+    /**
+     * Combined token of the given tables, usable as an ETag value.
+     */
+    @Transactional(readOnly = true)
+    public String etag(String... tables) {
+        Map<String, Long> versions = new HashMap<>();
+        changeTokenRepository.sumVersions(Arrays.asList(tables))
+                .forEach(row -> versions.put((String) row[0], ((Number) row[1]).longValue()));
+        return Arrays.stream(tables)
+                .map(table -> table + "-" + versions.getOrDefault(table, 0L))
+                .collect(Collectors.joining("."));
+    }
+
+    /**
+     * Creates missing stripes, for databases not set up by the migrations, so writers only ever
+     * update existing rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void createStripes() {
+        for (String table : Arrays.asList(SALES, SELLERS, CUSTOMERS)) {
+            Set<Integer> existing = new TreeSet<>(changeTokenRepository.findStripes(table));
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                if (!existing.contains(stripe)) {
+                    try {
+                        changeTokenRepository.saveAndFlush(new ChangeToken(table, stripe, 0L));
+                    } catch (DataIntegrityViolationException e) {
+                        log.debug("Change token stripe {}/{} created concurrently", table, stripe);
+                    }
+                }
+            }
+        }
+    }
+
+    private void increment(String table) {
+        int stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+        if (changeTokenRepository.increment(table, stripe) == 0) {
+            throw new IllegalStateException("Change token " + table + "/" + stripe + " does not exist.");
+        }
+    }
+}
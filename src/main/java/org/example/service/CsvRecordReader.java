@@ -0,0 +1,92 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits CSV text into records with the same rules as PostgreSQL's {@code COPY ... (FORMAT csv)}:
+ * fields are separated by commas, may be wrapped in double quotes (doubled inside to escape them) and
+ * quoted fields may span lines. An unquoted empty field reads as {@code null}, a quoted one as an empty
+ * string. A record that is not valid CSV (text after a closing quote, or a quote left open at the end of
+ * the input) is returned as an empty list, so callers can report it without stopping at it.
+ */
+class CsvRecordReader {
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private int pending = EOF - 1;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next record, or {@code null} when the input is exhausted.
+     */
+    List<String> read() throws IOException {
+        int c = next();
+        if (c == EOF) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean malformed = false;
+        while (true) {
+            if (c == EOF || c == '\n' || c == '\r') {
+                if (c == '\r' && (c = next()) != '\n') {
+                    pending = c;
+                }
+                fields.add(quoted || field.length() > 0 ? field.toString() : null);
+                return malformed ? Collections.emptyList() : fields;
+            }
+            if (c == ',') {
+                fields.add(quoted || field.length() > 0 ? field.toString() : null);
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '"' && field.length() == 0 && !quoted) {
+                quoted = true;
+                if (!readQuoted(field)) {
+                    return Collections.emptyList();
+                }
+                c = next();
+                continue;
+            } else if (quoted) {
+                malformed = true;
+            } else {
+                field.append((char) c);
+            }
+            c = next();
+        }
+    }
+
+    private boolean readQuoted(StringBuilder field) throws IOException {
+        while (true) {
+            int c = next();
+            if (c == EOF) {
+                return false;
+            }
+            if (c == '"') {
+                c = next();
+                if (c != '"') {
+                    pending = c;
+                    return true;
+                }
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int next() throws IOException {
+        if (pending != EOF - 1) {
+            int c = pending;
+            pending = EOF - 1;
+            return c;
+        }
+        return reader.read();
+    }
+}
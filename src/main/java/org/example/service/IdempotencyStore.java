@@ -0,0 +1,156 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.model.IdempotencyRecord;
+import org.example.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completed idempotent responses, kept in a bounded in-memory cache of
+ * {@code sales.idempotency.cache-size} entries in front of the idempotency_key table. A key is
+ * claimed by inserting its row, with a fresh owner token, before the request runs, so only one
+ * instance executes it. The response is stored in the request's own transaction and only while the
+ * token still owns the row, so the request's writes and its stored response commit together or not
+ * at all. A claim left behind for longer than {@code sales.idempotency.claim-timeout} is considered
+ * abandoned and may be taken over; the slow original then fails to complete and rolls back. Keys are
+ * forgotten after {@code sales.idempotency.ttl}.
+ */
+@Service
+public class IdempotencyStore {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Value("${sales.idempotency.cache-size:10000}")
+    private long cacheSize;
+    @Value("${sales.idempotency.ttl:24h}")
+    private Duration ttl;
+    @Value("${sales.idempotency.claim-timeout:5m}")
+    private Duration claimTimeout;
+
+    private Cache<String, IdempotencyRecord> completed;
+
+    @PostConstruct
+    public void start() {
+        completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheSize)
+                .build();
+        purger.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    public Optional<IdempotencyRecord> cached(String key) {
+        return Optional.ofNullable(completed.getIfPresent(key));
+    }
+
+    /**
+     * Claims the key for {@code owner}. Returns empty when the owner now holds it, otherwise the
+     * existing record, which is either completed or still being processed elsewhere.
+     */
+    public Optional<IdempotencyRecord> claim(String key, String requestHash, String owner) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Instant now = Instant.now();
+            try {
+                idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(key, requestHash, owner, now));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+                if (!existing.isPresent()) {
+                    // Released between the insert and the lookup.
+                    continue;
+                }
+
+                IdempotencyRecord record = existing.get();
+                if (record.getStatus() != null) {
+                    completed.put(key, record);
+                } else if (record.getRequestHash().equals(requestHash)
+                        && idempotencyRecordRepository.takeOver(key, owner, now, now.minus(claimTimeout)) == 1) {
+                    log.warn("Took over abandoned idempotency key {}", key);
+                    return Optional.empty();
+                }
+                return existing;
+            }
+        }
+        throw new IllegalStateException("Não foi possível reservar a Idempotency-Key.");
+    }
+
+    /**
+     * Stores the response in the current transaction, which must be the one holding the request's
+     * writes. Throws {@link ClaimLostException} when {@code owner} no longer holds the key, so that
+     * transaction rolls back.
+     */
+    public IdempotencyRecord complete(String key, String owner, String requestHash, int status, String contentType,
+                                      byte[] body) {
+        if (idempotencyRecordRepository.complete(key, owner, status, contentType, body) == 0) {
+            throw new ClaimLostException(key);
+        }
+
+        IdempotencyRecord record = new IdempotencyRecord(key, requestHash, owner, Instant.now());
+        record.setStatus(status);
+        record.setContentType(contentType);
+        record.setBody(body);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    completed.put(key, record);
+                }
+            });
+        } else {
+            completed.put(key, record);
+        }
+        return record;
+    }
+
+    /** Drops an unfinished claim held by {@code owner} so the key can be retried. */
+    public void release(String key, String owner) {
+        idempotencyRecordRepository.release(key, owner);
+    }
+
+    private void purge() {
+        try {
+            int purged = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+            if (purged > 0) {
+                log.info("Purged {} idempotency keys older than {}", purged, ttl);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key purge failed", e);
+        }
+    }
+
+    /** The claim was taken over by another request while this one was still running. */
+    public static class ClaimLostException extends RuntimeException {
+        public ClaimLostException(String key) {
+            super("A Idempotency-Key " + key + " foi assumida por outra requisição.");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.service;
+
+import org.example.repository.CustomerRepository;
+import org.example.repository.SellerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ReferenceExistenceIndex {
+    private final Set<Long> sellerIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> customerIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private SellerRepository sellerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        sellerIds.addAll(sellerRepository.findAllIds());
+        customerIds.addAll(customerRepository.findAllIds());
+    }
+
+    public boolean sellerExists(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (sellerIds.contains(id)) {
+            return true;
+        }
+        // Rows written by another instance or directly in the database are not indexed yet.
+        if (sellerRepository.existsById(id)) {
+            afterCommit(sellerIds, id);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean customerExists(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (customerIds.contains(id)) {
+            return true;
+        }
+        if (customerRepository.existsById(id)) {
+            afterCommit(customerIds, id);
+            return true;
+        }
+        return false;
+    }
+
+    public void addSeller(Long id) {
+        if (id != null) {
+            afterCommit(sellerIds, id);
+        }
+    }
+
+    public void removeSeller(Long id) {
+        sellerIds.remove(id);
+    }
+
+    public void addCustomer(Long id) {
+        if (id != null) {
+            afterCommit(customerIds, id);
+        }
+    }
+
+    public void removeCustomer(Long id) {
+        customerIds.remove(id);
+    }
+
+    // An id only becomes a positive entry once the row that backs it is committed; a rolled-back insert
+    // must not leave behind an entry that later turns into a foreign key violation.
+    private void afterCommit(Set<Long> ids, Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.add(id);
+                }
+            });
+        } else {
+            ids.add(id);
+        }
+    }
+}
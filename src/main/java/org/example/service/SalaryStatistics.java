@@ -0,0 +1,128 @@
+package org.example.service;
+
+import org.example.dto.SalaryStats;
+import org.example.repository.SellerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Seller salaries kept sorted in memory and updated on committed seller writes, so top-K, min/max,
+ * mean and percentiles are answered without reading the seller table. Percentiles interpolate
+ * linearly between the closest ranks, like PostgreSQL's {@code percentile_cont}.
+ */
+@Service
+public class SalaryStatistics {
+    private Map<Long, Double> salaryBySeller = new HashMap<>();
+    private double[] sorted = new double[0];
+    private int size;
+    private double sum;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    // Holds the lock while querying, so writes committed meanwhile are applied on top of the new state.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        Map<Long, Double> loaded = new HashMap<>();
+        for (Object[] row : sellerRepository.findAllIdsAndSalaries()) {
+            loaded.put((Long) row[0], (Double) row[1]);
+        }
+        salaryBySeller = loaded;
+        sorted = loaded.values().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        size = sorted.length;
+        sum = Arrays.stream(sorted).sum();
+    }
+
+    public void put(Long sellerId, Double salary) {
+        afterCommit(() -> apply(sellerId, salary));
+    }
+
+    public void remove(Long sellerId) {
+        afterCommit(() -> apply(sellerId, null));
+    }
+
+    public synchronized Optional<SalaryStats> stats(int top, List<Double> percentiles) {
+        if (size == 0) {
+            return Optional.empty();
+        }
+
+        List<Double> highest = new ArrayList<>();
+        for (int i = size - 1; i >= Math.max(0, size - top); i--) {
+            highest.add(sorted[i]);
+        }
+
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Double percentile : percentiles) {
+            values.put("p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(), percentile(percentile));
+        }
+
+        return Optional.of(new SalaryStats(size, sorted[0], sorted[size - 1], sum / size, highest, values));
+    }
+
+    private double percentile(double percentile) {
+        double rank = percentile / 100 * (size - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+    }
+
+    private synchronized void apply(Long sellerId, Double salary) {
+        Double previous = salary != null ? salaryBySeller.put(sellerId, salary) : salaryBySeller.remove(sellerId);
+        if (previous != null) {
+            removeValue(previous);
+        }
+        if (salary != null) {
+            insertValue(salary);
+        }
+    }
+
+    private void insertValue(double value) {
+        if (size == sorted.length) {
+            sorted = Arrays.copyOf(sorted, Math.max(16, size * 2));
+        }
+        int position = Arrays.binarySearch(sorted, 0, size, value);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        System.arraycopy(sorted, position, sorted, position + 1, size - position);
+        sorted[position] = value;
+        size++;
+        sum += value;
+    }
+
+    private void removeValue(double value) {
+        int position = Arrays.binarySearch(sorted, 0, size, value);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(sorted, position + 1, sorted, position, size - position - 1);
+        size--;
+        sum = size > 0 ? sum - value : 0;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
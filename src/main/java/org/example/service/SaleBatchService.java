@@ -0,0 +1,85 @@
+package org.example.service;
+
+import org.example.dto.BatchError;
+import org.example.dto.BatchResult;
+import org.example.model.Sale;
+import org.example.repository.CustomerRepository;
+import org.example.repository.SaleRepository;
+import org.example.repository.SellerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class SaleBatchService {
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private SaleRepository saleRepository;
+    @Autowired
+    private SellerRepository sellerRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private SalesSnapshot salesSnapshot;
+    @Autowired
+    private ChangeTokenService changeTokenService;
+    @Autowired
+    private SaleOutbox saleOutbox;
+
+    @Transactional
+    public BatchResult insertAll(List<Sale> sales) {
+        Set<Long> sellerIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        for (Sale sale : sales) {
+            if (sale.getSeller() != null && sale.getSeller().getId() != null) {
+                sellerIds.add(sale.getSeller().getId());
+            }
+            if (sale.getCustomer() != null && sale.getCustomer().getId() != null) {
+                customerIds.add(sale.getCustomer().getId());
+            }
+        }
+
+        Set<Long> existingSellers = sellerIds.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(sellerRepository.findExistingIds(sellerIds));
+        Set<Long> existingCustomers = customerIds.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(customerRepository.findExistingIds(customerIds));
+
+        List<Sale> validSales = new ArrayList<>();
+        List<BatchError> errors = new ArrayList<>();
+        for (int i = 0; i < sales.size(); i++) {
+            Sale sale = sales.get(i);
+            if (sale.getSeller() == null || !existingSellers.contains(sale.getSeller().getId())) {
+                errors.add(new BatchError(i, "Vendedor não encontrado."));
+            } else if (sale.getCustomer() == null || !existingCustomers.contains(sale.getCustomer().getId())) {
+                errors.add(new BatchError(i, "Cliente não encontrado."));
+            } else {
+                sale.setId(null);
+                sale.setSeller(sellerRepository.getReferenceById(sale.getSeller().getId()));
+                sale.setCustomer(customerRepository.getReferenceById(sale.getCustomer().getId()));
+                validSales.add(sale);
+            }
+        }
+
+        saleRepository.saveAll(validSales);
+        salesRollupService.addAll(validSales.stream().map(SaleContribution::of).collect(Collectors.toList()));
+        salesSnapshot.putAll(validSales);
+        validSales.forEach(saleOutbox::created);
+        if (!validSales.isEmpty()) {
+            changeTokenService.bump(ChangeTokenService.SALES);
+        }
+
+        return new BatchResult(validSales.size(), errors);
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.service;
+
+import org.example.model.SaleChange;
+import org.example.repository.SaleChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relays committed outbox rows to server-sent event subscribers. A single relay thread polls
+ * {@code sale_change} every {@code sales.changes.poll-interval-ms} (and right after local commits),
+ * first giving committed rows their feed positions, and keeps the latest {@code sales.changes.tail-size} changes in memory, so subscribers that keep
+ * up are served without touching the database; a subscriber resuming from an older position reads
+ * its backlog from the table in pages first. Rows older than {@code sales.changes.retention} are
+ * purged.
+ * <p>
+ * Sending blocks while a client is not reading, so each subscriber sends on a pooled thread of its
+ * own and a subscriber whose send has taken longer than {@code sales.changes.send-timeout} is
+ * dropped: it gets no more changes and its stream is closed once the write returns. The client then
+ * reconnects and resumes from its {@code Last-Event-ID}.
+ */
+@Service
+public class SaleChangeFeed {
+    private static final Logger log = LoggerFactory.getLogger(SaleChangeFeed.class);
+    private static final int PAGE_SIZE = 500;
+    private static final long HEARTBEAT_MILLIS = 15000;
+    private static final long PURGE_INTERVAL_MILLIS = 3600000;
+
+    private final ScheduledExecutorService relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sale-change-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sale-change-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<SaleChange> tail = new ArrayDeque<>();
+    // Every change after tailFrom is in the tail; head is the last position read.
+    private long tailFrom;
+    private volatile long head;
+    private long lastPurge;
+    private volatile boolean started;
+
+    @Autowired
+    private SaleChangeRepository saleChangeRepository;
+
+    @Value("${sales.changes.poll-interval-ms:500}")
+    private long pollIntervalMs;
+    @Value("${sales.changes.tail-size:10000}")
+    private int tailSize;
+    @Value("${sales.changes.retention:7d}")
+    private Duration retention;
+    @Value("${sales.changes.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Long last = saleChangeRepository.findMaxPosition();
+        synchronized (tail) {
+            head = last != null ? last : 0L;
+            tailFrom = head;
+        }
+        started = true;
+        relay.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relay.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Streams changes after {@code after}, or only new changes when it is null.
+     */
+    public SseEmitter subscribe(Long after) {
+        return subscribe(new SseEmitter(), after);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long after) {
+        Subscriber subscriber = new Subscriber(emitter, after != null ? after : head);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public void wake() {
+        if (started && !relay.isShutdown()) {
+            relay.execute(this::poll);
+        }
+    }
+
+    List<SaleChange> changesAfter(long position) {
+        synchronized (tail) {
+            if (position >= tailFrom) {
+                List<SaleChange> changes = new ArrayList<>();
+                for (SaleChange change : tail) {
+                    if (change.getPosition() > position) {
+                        changes.add(change);
+                        if (changes.size() == PAGE_SIZE) {
+                            break;
+                        }
+                    }
+                }
+                return changes;
+            }
+        }
+        return saleChangeRepository.findByPositionGreaterThanOrderByPositionAsc(position, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    void poll() {
+        try {
+            saleChangeRepository.positionCommitted();
+            List<SaleChange> changes;
+            do {
+                changes = saleChangeRepository.findByPositionGreaterThanOrderByPositionAsc(head, PageRequest.of(0, PAGE_SIZE));
+                append(changes);
+            } while (changes.size() == PAGE_SIZE);
+
+            dropStalled();
+            subscribers.forEach(Subscriber::schedule);
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Could not read the sale change outbox", e);
+        }
+    }
+
+    private void append(List<SaleChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        synchronized (tail) {
+            tail.addAll(changes);
+            while (tail.size() > tailSize) {
+                tailFrom = tail.removeFirst().getPosition();
+            }
+            head = changes.get(changes.size() - 1).getPosition();
+        }
+    }
+
+    private void dropStalled() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since >= sendTimeout.toMillis()) {
+                subscribers.remove(subscriber);
+                subscriber.dropped = true;
+                log.info("Dropped a sale change subscriber stuck sending for {} ms", now - since);
+            }
+        }
+    }
+
+    private void purge() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge >= PURGE_INTERVAL_MILLIS) {
+            lastPurge = now;
+            int purged = saleChangeRepository.deleteChangedBefore(Instant.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} sale changes older than {}", purged, retention);
+            }
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long position;
+        private long lastSentAt = System.currentTimeMillis();
+        // When the current send started, 0 between sends.
+        private volatile long sendingSince;
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::send);
+            }
+        }
+
+        private void send() {
+            sendingSince = System.currentTimeMillis();
+            try {
+                List<SaleChange> changes;
+                while (!dropped && !(changes = changesAfter(position)).isEmpty()) {
+                    for (SaleChange change : changes) {
+                        if (dropped) {
+                            break;
+                        }
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.getPosition()))
+                                .name(change.getOperation().name())
+                                .data(change, MediaType.APPLICATION_JSON));
+                        position = change.getPosition();
+                    }
+                    lastSentAt = System.currentTimeMillis();
+                }
+                if (dropped) {
+                    emitter.complete();
+                } else if (System.currentTimeMillis() - lastSentAt >= HEARTBEAT_MILLIS) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                    lastSentAt = System.currentTimeMillis();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; it resumes from its Last-Event-ID when it reconnects.
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            } catch (RuntimeException e) {
+                log.warn("Could not send sale changes", e);
+            } finally {
+                sendingSince = 0;
+                scheduled.set(false);
+            }
+        }
+    }
+}
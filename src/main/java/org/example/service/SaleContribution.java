@@ -0,0 +1,18 @@
+package org.example.service;
+
+import lombok.Value;
+import org.example.model.Sale;
+
+@Value
+public class SaleContribution {
+    Long sellerId;
+    Long customerId;
+    double totalValue;
+
+    public static SaleContribution of(Sale sale) {
+        return new SaleContribution(
+                sale.getSeller() != null ? sale.getSeller().getId() : null,
+                sale.getCustomer() != null ? sale.getCustomer().getId() : null,
+                sale.getTotalValue() != null ? sale.getTotalValue() : 0.0);
+    }
+}
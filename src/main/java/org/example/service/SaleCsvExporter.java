@@ -0,0 +1,115 @@
+package org.example.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes every sale as CSV straight from a server-side cursor: rows are read {@value #FETCH_SIZE} at a
+ * time inside a read-only transaction and written out without creating entities, so memory use does
+ * not grow with the table.
+ */
+@Service
+public class SaleCsvExporter {
+    public static final String HEADER = "id,seller_id,customer_id,product_id,product_name,product_price,product_quantity,total_value";
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String QUERY = "SELECT id_sale, id_seller, id_customer, product_id, product_name, " +
+            "product_price, product_quantity, total_value FROM sale";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public long export(OutputStream outputStream) throws IOException {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long[] rows = new long[1];
+        try {
+            writer.write(HEADER);
+            writer.write('\n');
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                // The PostgreSQL driver only uses a cursor for forward-only statements with a fetch size.
+                PreparedStatement statement = connection.prepareStatement(QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, resultSet -> {
+                writeRow(writer, resultSet);
+                rows[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private void writeRow(Writer writer, ResultSet resultSet) throws SQLException {
+        try {
+            writeNumber(writer, resultSet.getLong(1), resultSet.wasNull());
+            writer.write(',');
+            writeNumber(writer, resultSet.getLong(2), resultSet.wasNull());
+            writer.write(',');
+            writeNumber(writer, resultSet.getLong(3), resultSet.wasNull());
+            writer.write(',');
+            writeNumber(writer, resultSet.getLong(4), resultSet.wasNull());
+            writer.write(',');
+            writeText(writer, resultSet.getString(5));
+            writer.write(',');
+            writeDecimal(writer, resultSet.getDouble(6), resultSet.wasNull());
+            writer.write(',');
+            writeNumber(writer, resultSet.getInt(7), resultSet.wasNull());
+            writer.write(',');
+            writeDecimal(writer, resultSet.getDouble(8), resultSet.wasNull());
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNumber(Writer writer, long value, boolean isNull) throws IOException {
+        if (!isNull) {
+            writer.write(Long.toString(value));
+        }
+    }
+
+    private static void writeDecimal(Writer writer, double value, boolean isNull) throws IOException {
+        if (isNull) {
+            return;
+        }
+        // Double.toString switches to scientific notation from 10^7 on, which spreadsheets and CSV
+        // loaders read as text; NaN and infinities have no plain form.
+        writer.write(Double.isFinite(value) ? BigDecimal.valueOf(value).toPlainString() : Double.toString(value));
+    }
+
+    static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
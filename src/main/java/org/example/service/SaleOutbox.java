@@ -0,0 +1,142 @@
+package org.example.service;
+
+import org.example.model.ChangeOperation;
+import org.example.model.Sale;
+import org.example.model.SaleChange;
+import org.example.repository.SaleChangeRepository;
+import org.example.repository.SaleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox behind the sale change feed. Changes recorded during a transaction are
+ * written to {@code sale_change} just before it commits, with the sale's final state. Rows are
+ * written without a feed position and writers take no shared lock; {@link SaleChangeFeed} numbers
+ * them once they are committed, so positions grow in the order changes became visible.
+ */
+@Service
+@Transactional
+public class SaleOutbox {
+    @Autowired
+    private SaleRepository saleRepository;
+    @Autowired
+    private SaleChangeRepository saleChangeRepository;
+    @Autowired
+    private SaleChangeFeed saleChangeFeed;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void created(Sale sale) {
+        pending().record(sale.getId(), ChangeOperation.CREATED, sale);
+    }
+
+    public void updated(Sale sale) {
+        pending().record(sale.getId(), ChangeOperation.UPDATED, sale);
+    }
+
+    /**
+     * Records updates made with bulk statements; the rows are read back just before commit.
+     */
+    public void updated(Collection<Long> saleIds) {
+        PendingChanges pending = pending();
+        saleIds.forEach(id -> pending.record(id, ChangeOperation.UPDATED, null));
+    }
+
+    public void deleted(Long saleId) {
+        pending().record(saleId, ChangeOperation.DELETED, null);
+    }
+
+    /**
+     * For transactions that insert {@code sale_change} rows with SQL themselves, so the feed picks
+     * them up right after commit too.
+     */
+    public void appendedBySql() {
+        pending();
+    }
+
+    private PendingChanges pending() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingChanges changes = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    saleChangeFeed.wake();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(SaleOutbox.this);
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    private void write(PendingChanges pending) {
+        // Flushed first so versions and generated values are final.
+        entityManager.flush();
+
+        List<Long> unloaded = new ArrayList<>();
+        pending.operations.forEach((id, operation) -> {
+            if (operation != ChangeOperation.DELETED && !pending.sales.containsKey(id)) {
+                unloaded.add(id);
+            }
+        });
+        if (!unloaded.isEmpty()) {
+            saleRepository.findAllWithAssociationsByIdIn(unloaded).forEach(sale -> pending.sales.put(sale.getId(), sale));
+        }
+
+        Instant now = Instant.now();
+        List<SaleChange> changes = new ArrayList<>(pending.operations.size());
+        pending.operations.forEach((id, operation) -> {
+            if (operation == ChangeOperation.DELETED) {
+                changes.add(SaleChange.deleted(id, now));
+            } else if (pending.sales.containsKey(id)) {
+                changes.add(SaleChange.of(pending.sales.get(id), operation, now));
+            }
+        });
+        saleChangeRepository.saveAll(changes);
+    }
+
+    private static class PendingChanges {
+        private final Map<Long, ChangeOperation> operations = new LinkedHashMap<>();
+        private final Map<Long, Sale> sales = new HashMap<>();
+
+        void record(Long id, ChangeOperation operation, Sale sale) {
+            ChangeOperation previous = operations.get(id);
+            if (previous == ChangeOperation.CREATED && operation == ChangeOperation.DELETED) {
+                // Created and deleted in the same transaction: consumers never see it.
+                operations.remove(id);
+                sales.remove(id);
+                return;
+            }
+            operations.put(id, previous == ChangeOperation.CREATED ? ChangeOperation.CREATED : operation);
+            if (sale != null) {
+                sales.put(id, sale);
+            } else if (operation == ChangeOperation.DELETED) {
+                sales.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When {@code sales.retention.months} is positive, deletes once a day the sales created before
+ * the first day of the month that many months ago. Sales are deleted in batches of
+ * {@code sales.retention.batch-size}, oldest first, each in its own transaction that also subtracts
+ * them from the sales rollups and the snapshot and writes their {@code DELETED} rows to the change
+ * feed, like {@code DELETE /sales/{id}} does. The BRIN index on {@code created_at}
+ * (see {@code db/12-sale-created-at-brin.sql}) keeps finding the old rows cheap.
+ */
+@Service
+public class SaleRetention {
+    private static final Logger log = LoggerFactory.getLogger(SaleRetention.class);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sale-retention");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private SaleOutbox saleOutbox;
+    @Autowired
+    private SalesSnapshot salesSnapshot;
+    @Autowired
+    private ChangeTokenService changeTokenService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sales.retention.months:0}")
+    private int retentionMonths;
+    @Value("${sales.retention.batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::purge, 0, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void purge() {
+        try {
+            OffsetDateTime cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths)
+                    .atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+            long deleted = 0;
+            int batch;
+            do {
+                batch = deleteBatch(cutoff);
+                deleted += batch;
+            } while (batch == batchSize && !Thread.currentThread().isInterrupted());
+            if (deleted > 0) {
+                log.info("Deleted {} sales created before {}", deleted, cutoff);
+            }
+        } catch (RuntimeException e) {
+            log.error("Sale retention failed", e);
+        }
+    }
+
+    private int deleteBatch(OffsetDateTime cutoff) {
+        Integer deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            List<SaleContribution> contributions = new ArrayList<>();
+            // SKIP LOCKED leaves sales a request is changing right now for the next batch or run.
+            jdbcTemplate.query("DELETE FROM sale WHERE id_sale IN (SELECT id_sale FROM sale WHERE created_at < ? " +
+                            "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                            "RETURNING id_sale, id_seller, id_customer, total_value",
+                    rs -> {
+                        ids.add(rs.getLong("id_sale"));
+                        contributions.add(new SaleContribution(
+                                (Long) rs.getObject("id_seller"), (Long) rs.getObject("id_customer"),
+                                rs.getDouble("total_value")));
+                    },
+                    Timestamp.from(cutoff.toInstant()), batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            salesRollupService.removeAll(contributions);
+            ids.forEach(saleOutbox::deleted);
+            salesSnapshot.removeAll(ids);
+            changeTokenService.bump(ChangeTokenService.SALES);
+            return ids.size();
+        });
+        return deleted != null ? deleted : 0;
+    }
+}
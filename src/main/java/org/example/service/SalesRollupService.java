@@ -0,0 +1,140 @@
+package org.example.service;
+
+import org.example.dto.SalesStats;
+import org.example.model.CustomerSalesStats;
+import org.example.model.SellerSalesStats;
+import org.example.repository.CustomerSalesStatsRepository;
+import org.example.repository.SellerSalesStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Service
+@Transactional
+public class SalesRollupService {
+    @Autowired
+    private SellerSalesStatsRepository sellerStatsRepository;
+    @Autowired
+    private CustomerSalesStatsRepository customerStatsRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void registerSeller(Long sellerId) {
+        sellerStatsRepository.save(new SellerSalesStats(sellerId, 0L, 0.0));
+    }
+
+    public void registerCustomer(Long customerId) {
+        customerStatsRepository.save(new CustomerSalesStats(customerId, 0L, 0.0));
+    }
+
+    public void add(SaleContribution sale) {
+        apply(Collections.emptyList(), Collections.singletonList(sale));
+    }
+
+    public void addAll(Collection<SaleContribution> sales) {
+        apply(Collections.emptyList(), sales);
+    }
+
+    public void remove(SaleContribution sale) {
+        apply(Collections.singletonList(sale), Collections.emptyList());
+    }
+
+    public void removeAll(Collection<SaleContribution> sales) {
+        apply(sales, Collections.emptyList());
+    }
+
+    public void replace(SaleContribution before, SaleContribution after) {
+        apply(Collections.singletonList(before), Collections.singletonList(after));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SalesStats> getSellerStats(Long sellerId) {
+        return sellerStatsRepository.findById(sellerId)
+                .map(stats -> SalesStats.of(stats.getSaleCount(), stats.getTotalRevenue()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SalesStats> getCustomerStats(Long customerId) {
+        return customerStatsRepository.findById(customerId)
+                .map(stats -> SalesStats.of(stats.getSaleCount(), stats.getTotalRevenue()));
+    }
+
+    private void apply(Collection<SaleContribution> removed, Collection<SaleContribution> added) {
+        // Sorted, so every writer locks stats rows in ascending id order and two overlapping batches
+        // cannot deadlock.
+        Map<Long, Delta> sellerDeltas = new TreeMap<>();
+        Map<Long, Delta> customerDeltas = new TreeMap<>();
+
+        for (SaleContribution sale : removed) {
+            accumulate(sellerDeltas, sale.getSellerId(), -1, -sale.getTotalValue());
+            accumulate(customerDeltas, sale.getCustomerId(), -1, -sale.getTotalValue());
+        }
+        for (SaleContribution sale : added) {
+            accumulate(sellerDeltas, sale.getSellerId(), 1, sale.getTotalValue());
+            accumulate(customerDeltas, sale.getCustomerId(), 1, sale.getTotalValue());
+        }
+
+        applyDeltas("seller_sales_stats", "id_seller", sellerDeltas, sellerStatsRepository::upsertDelta);
+        applyDeltas("customer_sales_stats", "id_customer", customerDeltas, customerStatsRepository::upsertDelta);
+    }
+
+    /**
+     * Sends the updates for one stats table as a single JDBC batch, so a batch of sales costs one round
+     * trip per table rather than one statement per seller or customer. The row normally exists from
+     * registration; when it does not, two writers may be creating it at once, so the fallback is an
+     * upsert rather than an insert that could hit the primary key.
+     */
+    private void applyDeltas(String table, String idColumn, Map<Long, Delta> deltas, DeltaUpsert upsert) {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((id, delta) -> {
+            if (!delta.isZero()) {
+                ids.add(id);
+                rows.add(new Object[]{delta.count, delta.revenue, id});
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE " + table + " SET sale_count = sale_count + ?, " +
+                "total_revenue = total_revenue + ? WHERE " + idColumn + " = ?", rows);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Delta delta = deltas.get(ids.get(i));
+                upsert.apply(ids.get(i), delta.count, delta.revenue);
+            }
+        }
+    }
+
+    private void accumulate(Map<Long, Delta> deltas, Long id, long count, double revenue) {
+        if (id == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(id, key -> new Delta());
+        delta.count += count;
+        delta.revenue += revenue;
+    }
+
+    private interface DeltaUpsert {
+        void apply(Long id, long count, double revenue);
+    }
+
+    private static class Delta {
+        private long count;
+        private double revenue;
+
+        private boolean isZero() {
+            return count == 0 && revenue == 0.0;
+        }
+    }
+}
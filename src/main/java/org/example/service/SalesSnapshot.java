@@ -0,0 +1,329 @@
+package org.example.service;
+
+import org.example.dto.GroupTotal;
+import org.example.model.Sale;
+import org.example.repository.SaleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of the sales table held in primitive arrays, one array per column and unit
+ * prices and totals in cents. Loaded on startup, kept current from committed sale writes and scanned in parallel for
+ * the analytics endpoints. Missing seller, customer or product ids are stored as 0 and left out of
+ * the groupings.
+ */
+@Service
+public class SalesSnapshot {
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int MIN_ROWS_PER_TASK = 64 * 1024;
+
+    private static final Comparator<GroupTotal> BY_REVENUE = Comparator.comparingDouble(GroupTotal::getRevenue).reversed()
+            .thenComparing(GroupTotal::getId);
+    private static final Comparator<GroupTotal> BY_QUANTITY = Comparator.comparingLong(GroupTotal::getQuantity).reversed()
+            .thenComparing(GroupTotal::getId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns();
+    // Changes committed while a reload is running, replayed onto the reloaded columns.
+    private List<Consumer<Columns>> pendingChanges;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns loaded = new Columns();
+        boolean complete = false;
+        try {
+            long after = 0;
+            List<Object[]> rows;
+            do {
+                rows = saleRepository.findSnapshotRowsAfter(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (Object[] row : rows) {
+                    loaded.put(new Row((Long) row[0], (Long) row[1], (Long) row[2], (Long) row[3],
+                            (Double) row[4], (Integer) row[5], (Double) row[6]));
+                    after = (Long) row[0];
+                }
+            } while (rows.size() == LOAD_PAGE_SIZE);
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    pendingChanges.forEach(change -> change.accept(loaded));
+                    columns = loaded;
+                }
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(Sale sale) {
+        Row row = Row.of(sale);
+        afterCommit(target -> target.put(row));
+    }
+
+    public void putAll(Collection<Sale> sales) {
+        List<Row> rows = sales.stream().map(Row::of).collect(Collectors.toList());
+        afterCommit(target -> rows.forEach(target::put));
+    }
+
+    public void remove(Long id) {
+        afterCommit(target -> target.remove(id));
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        List<Long> copy = new ArrayList<>(ids);
+        afterCommit(target -> copy.forEach(target::remove));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Unit price of a sale in the snapshot, or null when it is not there.
+    Double price(long id) {
+        lock.readLock().lock();
+        try {
+            int position = columns.positions.get(id);
+            return position != LongIntHashMap.MISSING ? columns.priceCents[position] / 100.0 : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<GroupTotal> topSellersByRevenue(int limit) {
+        return top(snapshot -> snapshot.sellerIds, BY_REVENUE, limit);
+    }
+
+    public List<GroupTotal> topCustomersByRevenue(int limit) {
+        return top(snapshot -> snapshot.customerIds, BY_REVENUE, limit);
+    }
+
+    public List<GroupTotal> topProductsByQuantity(int limit) {
+        return top(snapshot -> snapshot.productIds, BY_QUANTITY, limit);
+    }
+
+    private List<GroupTotal> top(Function<Columns, long[]> keyColumn, Comparator<GroupTotal> order, int limit) {
+        GroupTotals totals;
+        lock.readLock().lock();
+        try {
+            Columns current = columns;
+            long[] keys = keyColumn.apply(current);
+            int size = current.size;
+            int tasks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), size / MIN_ROWS_PER_TASK));
+            totals = IntStream.range(0, tasks)
+                    .parallel()
+                    .mapToObj(task -> current.group(keys, (int) ((long) size * task / tasks), (int) ((long) size * (task + 1) / tasks)))
+                    .reduce(GroupTotals::merge)
+                    .orElseGet(GroupTotals::new);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<GroupTotal> result = totals.toList();
+        result.sort(order);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private void afterCommit(Consumer<Columns> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<Columns> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(columns);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Row {
+        final long id;
+        final long sellerId;
+        final long customerId;
+        final long productId;
+        final long priceCents;
+        final int quantity;
+        final long totalCents;
+
+        Row(Long id, Long sellerId, Long customerId, Long productId, Double price, Integer quantity, Double totalValue) {
+            this.id = id;
+            this.sellerId = sellerId != null ? sellerId : 0;
+            this.customerId = customerId != null ? customerId : 0;
+            this.productId = productId != null ? productId : 0;
+            this.priceCents = price != null ? Math.round(price * 100) : 0;
+            this.quantity = quantity != null ? quantity : 0;
+            this.totalCents = totalValue != null ? Math.round(totalValue * 100) : 0;
+        }
+
+        static Row of(Sale sale) {
+            return new Row(sale.getId(),
+                    sale.getSeller() != null ? sale.getSeller().getId() : null,
+                    sale.getCustomer() != null ? sale.getCustomer().getId() : null,
+                    sale.getProductId(), sale.getProductPrice(), sale.getProductQuantity(), sale.getTotalValue());
+        }
+    }
+
+    private static final class Columns {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        final LongIntHashMap positions = new LongIntHashMap(INITIAL_CAPACITY);
+        long[] ids = new long[INITIAL_CAPACITY];
+        long[] sellerIds = new long[INITIAL_CAPACITY];
+        long[] customerIds = new long[INITIAL_CAPACITY];
+        long[] productIds = new long[INITIAL_CAPACITY];
+        long[] priceCents = new long[INITIAL_CAPACITY];
+        int[] quantities = new int[INITIAL_CAPACITY];
+        long[] totalCents = new long[INITIAL_CAPACITY];
+        int size;
+
+        void put(Row row) {
+            int position = positions.get(row.id);
+            if (position == LongIntHashMap.MISSING) {
+                if (size == ids.length) {
+                    grow();
+                }
+                position = size++;
+                positions.put(row.id, position);
+            }
+            ids[position] = row.id;
+            sellerIds[position] = row.sellerId;
+            customerIds[position] = row.customerId;
+            productIds[position] = row.productId;
+            priceCents[position] = row.priceCents;
+            quantities[position] = row.quantity;
+            totalCents[position] = row.totalCents;
+        }
+
+        // Moves the last row into the freed position so the columns stay dense.
+        void remove(long id) {
+            int position = positions.remove(id);
+            if (position == LongIntHashMap.MISSING) {
+                return;
+            }
+            int last = --size;
+            if (position != last) {
+                ids[position] = ids[last];
+                sellerIds[position] = sellerIds[last];
+                customerIds[position] = customerIds[last];
+                productIds[position] = productIds[last];
+                priceCents[position] = priceCents[last];
+                quantities[position] = quantities[last];
+                totalCents[position] = totalCents[last];
+                positions.put(ids[position], position);
+            }
+        }
+
+        GroupTotals group(long[] keys, int from, int to) {
+            GroupTotals totals = new GroupTotals();
+            for (int i = from; i < to; i++) {
+                if (keys[i] != 0) {
+                    totals.add(keys[i], 1, quantities[i], totalCents[i]);
+                }
+            }
+            return totals;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            sellerIds = Arrays.copyOf(sellerIds, capacity);
+            customerIds = Arrays.copyOf(customerIds, capacity);
+            productIds = Arrays.copyOf(productIds, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            totalCents = Arrays.copyOf(totalCents, capacity);
+        }
+    }
+
+    private static final class GroupTotals {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private final LongIntHashMap positions = new LongIntHashMap(INITIAL_CAPACITY);
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] counts = new long[INITIAL_CAPACITY];
+        private long[] quantities = new long[INITIAL_CAPACITY];
+        private long[] totalCents = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void add(long key, long count, long quantity, long cents) {
+            int position = positions.get(key);
+            if (position == LongIntHashMap.MISSING) {
+                if (size == keys.length) {
+                    int capacity = size * 2;
+                    keys = Arrays.copyOf(keys, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                    quantities = Arrays.copyOf(quantities, capacity);
+                    totalCents = Arrays.copyOf(totalCents, capacity);
+                }
+                position = size++;
+                keys[position] = key;
+                positions.put(key, position);
+            }
+            counts[position] += count;
+            quantities[position] += quantity;
+            totalCents[position] += cents;
+        }
+
+        GroupTotals merge(GroupTotals other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.keys[i], other.counts[i], other.quantities[i], other.totalCents[i]);
+            }
+            return this;
+        }
+
+        List<GroupTotal> toList() {
+            List<GroupTotal> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(new GroupTotal(keys[i], counts[i], quantities[i], totalCents[i] / 100.0));
+            }
+            return result;
+        }
+    }
+}
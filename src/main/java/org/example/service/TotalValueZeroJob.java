@@ -0,0 +1,148 @@
+package org.example.service;
+
+import org.example.model.JobStatus;
+import org.example.model.SaleMaintenanceJob;
+import org.example.repository.SaleMaintenanceJobRepository;
+import org.example.repository.SaleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sets null sale totals to zero in id ranges of {@code sales.maintenance.batch-size} rows, one
+ * transaction per range, pausing {@code sales.maintenance.throttle-ms} between ranges. Progress is
+ * committed together with each range, so a job interrupted by a restart resumes where it stopped.
+ */
+@Service
+public class TotalValueZeroJob {
+    public static final String TYPE = "TOTAL_VALUE_TO_ZERO";
+
+    private static final Logger log = LoggerFactory.getLogger(TotalValueZeroJob.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "total-value-zero-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private SaleRepository saleRepository;
+    @Autowired
+    private SaleMaintenanceJobRepository jobRepository;
+    @Autowired
+    private SalesSnapshot salesSnapshot;
+    @Autowired
+    private ChangeTokenService changeTokenService;
+    @Autowired
+    private SaleOutbox saleOutbox;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sales.maintenance.batch-size:5000}")
+    private int batchSize;
+    @Value("${sales.maintenance.throttle-ms:50}")
+    private long throttleMs;
+
+    public synchronized SaleMaintenanceJob start() {
+        List<SaleMaintenanceJob> running = jobRepository.findByTypeAndStatus(TYPE, JobStatus.RUNNING);
+        if (!running.isEmpty()) {
+            return running.get(0);
+        }
+
+        Long maxId = saleRepository.findMaxId();
+
+        SaleMaintenanceJob job = new SaleMaintenanceJob();
+        job.setType(TYPE);
+        job.setStatus(JobStatus.RUNNING);
+        job.setLastId(0L);
+        job.setMaxId(maxId != null ? maxId : 0L);
+        job.setUpdatedRows(0L);
+        job.setBatchSize(batchSize);
+        job.setStartedAt(Instant.now());
+        // Saved in its own transaction, so the job row is committed before the worker reads it.
+        jobRepository.save(job);
+
+        Long jobId = job.getId();
+        executor.execute(() -> run(jobId));
+        return job;
+    }
+
+    public Optional<SaleMaintenanceJob> find(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (SaleMaintenanceJob job : jobRepository.findByTypeAndStatus(TYPE, JobStatus.RUNNING)) {
+            log.info("Resuming job {} after sale id {}", job.getId(), job.getLastId());
+            Long jobId = job.getId();
+            executor.execute(() -> run(jobId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Long jobId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            while (!Boolean.TRUE.equals(transaction.execute(status -> processChunk(jobId)))) {
+                if (throttleMs > 0) {
+                    Thread.sleep(throttleMs);
+                }
+            }
+            salesSnapshot.reload();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", jobId, e);
+            transaction.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(JobStatus.FAILED);
+                job.setError(e.getMessage());
+                job.setFinishedAt(Instant.now());
+            }));
+        }
+    }
+
+    private boolean processChunk(Long jobId) {
+        SaleMaintenanceJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != JobStatus.RUNNING) {
+            return true;
+        }
+
+        long fromId = job.getLastId();
+        long toId = Math.min(fromId + job.getBatchSize(), job.getMaxId());
+        if (fromId < toId) {
+            List<Long> ids = saleRepository.findIdsWithoutTotalValueBetween(fromId, toId);
+            int updated = saleRepository.updateTotalValueToZeroBetween(fromId, toId);
+            if (updated > 0) {
+                changeTokenService.bump(ChangeTokenService.SALES);
+                saleOutbox.updated(ids);
+            }
+            job.setLastId(toId);
+            job.setUpdatedRows(job.getUpdatedRows() + updated);
+        }
+
+        if (toId >= job.getMaxId()) {
+            job.setStatus(JobStatus.COMPLETED);
+            job.setFinishedAt(Instant.now());
+            return true;
+        }
+        return false;
+    }
+}
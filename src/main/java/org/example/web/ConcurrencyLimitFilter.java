@@ -0,0 +1,247 @@
+package org.example.web;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.example.config.ConcurrencyLimitProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sheds load per endpoint. Every handler (HTTP method and route pattern) gets its own
+ * {@link GradientLimiter}, bounded by the budget of its {@link LimitGroup}: handlers marked with
+ * {@link ScanEndpoint} share the small scan bounds, other GETs the read bounds and everything else
+ * the write bounds. On top of the per-endpoint limits, each group has a shared ceiling that all its
+ * endpoints draw from, so several scan endpoints together cannot exceed the scan budget. A request over
+ * either limit is answered with 503 right away, so a slow scan cannot hold the threads that cheap
+ * lookups need. It is a servlet filter ordered ahead of {@link IdempotencyFilter}, so a shed request
+ * has not claimed its idempotency key or opened a transaction. Streamed responses keep their permit
+ * until the stream completes; server-sent event subscriptions are not limited.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    public static final String LIMIT_METRIC = "http.server.concurrency.limit";
+    public static final String IN_FLIGHT_METRIC = "http.server.concurrency.in.flight";
+    public static final String REJECTED_METRIC = "http.server.concurrency.rejected";
+    public static final String GROUP_IN_FLIGHT_METRIC = "http.server.concurrency.group.in.flight";
+    public static final String GROUP_REJECTED_METRIC = "http.server.concurrency.group.rejected";
+
+    private final ConcurrentMap<String, GradientLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<LimitGroup, GroupPermits> groups = new EnumMap<>(LimitGroup.class);
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final HandlerMapping handlerMapping;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry,
+                                  HandlerMapping handlerMapping) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.handlerMapping = handlerMapping;
+        for (LimitGroup group : LimitGroup.values()) {
+            groups.put(group, register(group));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HandlerMethod handlerMethod = handlerMethod(request);
+        if (handlerMethod == null || SseEmitter.class.isAssignableFrom(handlerMethod.getMethod().getReturnType())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String method = request.getMethod();
+        LimitGroup group = group(method, handlerMethod);
+        GradientLimiter limiter = limiters.computeIfAbsent(method + " " + pattern,
+                key -> register(method, pattern, group));
+        GroupPermits groupPermits = groups.get(group);
+        if (!groupPermits.semaphore.tryAcquire()) {
+            groupPermits.rejected.increment();
+            shed(response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            groupPermits.semaphore.release();
+            shed(response);
+            return;
+        }
+
+        Permit permit = new Permit(limiter, groupPermits, System.nanoTime());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Resolves the handler the dispatcher will pick, which also sets the matched route pattern on
+     * the request. Requests without a controller method (static resources, 404s, CORS preflights)
+     * are not limited.
+     */
+    private HandlerMethod handlerMethod(HttpServletRequest request) {
+        Object previousPath = request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE);
+        try {
+            if (handlerMapping.usesPathPatterns()) {
+                ServletRequestPathUtils.parseAndCache(request);
+            }
+            HandlerExecutionChain handler = handlerMapping.getHandler(request);
+            return handler != null && handler.getHandler() instanceof HandlerMethod
+                    ? (HandlerMethod) handler.getHandler() : null;
+        } catch (Exception e) {
+            // Unsupported method or media type: the dispatcher answers those.
+            return null;
+        } finally {
+            if (previousPath != null) {
+                request.setAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE, previousPath);
+            } else {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
+    private void shed(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(
+                "Servidor sobrecarregado. Tente novamente mais tarde.".getBytes(StandardCharsets.UTF_8));
+    }
+
+    GradientLimiter limiter(String method, String pattern) {
+        return limiters.get(method + " " + pattern);
+    }
+
+    int groupInFlight(LimitGroup group) {
+        return groups.get(group).inFlight();
+    }
+
+    private LimitGroup group(String method, HandlerMethod handlerMethod) {
+        if (handlerMethod.hasMethodAnnotation(ScanEndpoint.class)) {
+            return LimitGroup.SCAN;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? LimitGroup.READ : LimitGroup.WRITE;
+    }
+
+    private GradientLimiter register(String method, String pattern, LimitGroup group) {
+        ConcurrencyLimitProperties.Group bounds = properties.group(group);
+        GradientLimiter limiter = new GradientLimiter(bounds.getInitialLimit(), bounds.getMinLimit(),
+                bounds.getMaxLimit(), properties.getTolerance(), properties.getSmoothing());
+        Tags tags = Tags.of("method", method, "uri", pattern, "group", group.name().toLowerCase(Locale.ROOT));
+        Gauge.builder(LIMIT_METRIC, limiter, GradientLimiter::getLimit)
+                .tags(tags)
+                .description("Current concurrency limit of the endpoint")
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, limiter, GradientLimiter::getInFlight)
+                .tags(tags)
+                .description("Requests the endpoint is currently handling")
+                .register(meterRegistry);
+        FunctionCounter.builder(REJECTED_METRIC, limiter, GradientLimiter::getRejected)
+                .tags(tags)
+                .description("Requests refused because the endpoint was at its limit")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private GroupPermits register(LimitGroup group) {
+        GroupPermits permits = new GroupPermits(properties.group(group).getSharedLimit());
+        Tags tags = Tags.of("group", group.name().toLowerCase(Locale.ROOT));
+        Gauge.builder(GROUP_IN_FLIGHT_METRIC, permits, GroupPermits::inFlight)
+                .tags(tags)
+                .description("Requests all endpoints of the group are currently handling")
+                .register(meterRegistry);
+        FunctionCounter.builder(GROUP_REJECTED_METRIC, permits.rejected, LongAdder::doubleValue)
+                .tags(tags)
+                .description("Requests refused because the group was at its shared limit")
+                .register(meterRegistry);
+        return permits;
+    }
+
+    private static class GroupPermits {
+        private final int limit;
+        private final Semaphore semaphore;
+        private final LongAdder rejected = new LongAdder();
+
+        GroupPermits(int limit) {
+            this.limit = limit;
+            this.semaphore = new Semaphore(limit);
+        }
+
+        int inFlight() {
+            return limit - semaphore.availablePermits();
+        }
+    }
+
+    private static class Permit implements AsyncListener {
+        private final GradientLimiter limiter;
+        private final GroupPermits group;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(GradientLimiter limiter, GroupPermits group, long startNanos) {
+            this.limiter = limiter;
+            this.group = group;
+            this.startNanos = startNanos;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - startNanos);
+                group.semaphore.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
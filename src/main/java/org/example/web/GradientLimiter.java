@@ -0,0 +1,95 @@
+package org.example.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that follows the latency gradient of one endpoint. Each completed request
+ * compares its latency with the endpoint's long-term average: while they match the limit grows by
+ * about its square root, and when requests get slower than {@code tolerance} times the average the
+ * limit shrinks in proportion, down to half per step. Requests over the limit are refused instead
+ * of queueing on a server thread.
+ */
+public class GradientLimiter {
+    private static final int WARMUP_SAMPLES = 10;
+    // Weight of a sample in the long-term average, about the last 600 requests.
+    private static final double LONG_RTT_WEIGHT = 2.0 / 601;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt;
+    private int samples;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Releases a permit taken by {@link #tryAcquire()} and adjusts the limit with its latency. */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos > 0) {
+            sample(rttNanos, inFlightBefore);
+        }
+    }
+
+    private synchronized void sample(double rtt, int inFlightBefore) {
+        if (samples < WARMUP_SAMPLES) {
+            samples++;
+            longRtt += (rtt - longRtt) / samples;
+            return;
+        }
+
+        longRtt += LONG_RTT_WEIGHT * (rtt - longRtt);
+        if (longRtt / rtt > 2) {
+            // Latency recovered from a long slow period; let the average catch up faster.
+            longRtt *= 0.95;
+        }
+        if (inFlightBefore < estimatedLimit / 2) {
+            // Not using the limit, so the latency says nothing about whether it is too high.
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,281 @@
+package org.example.web;
+
+import org.example.model.IdempotencyRecord;
+import org.example.service.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes the create endpoints safe to retry. A POST carrying an {@code Idempotency-Key} header runs
+ * once; repeating it with the same body answers the stored status and body without reaching the
+ * controller, and a duplicate arriving while the first one runs on this instance waits for it and
+ * gets the same answer. Reusing a key for a different body is refused. The response is stored in
+ * the same transaction as the request's writes (see {@link IdempotencyStore}); server errors roll
+ * the request back and are not stored, so those can be retried with the same key.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentMap<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sales.idempotency.wait-timeout:30s}")
+    private Duration waitTimeout;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER).trim();
+        if (header.isEmpty() || header.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST,
+                    "A Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres.");
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String key = request.getRequestURI() + " " + header;
+        String requestHash = DigestUtils.md5DigestAsHex(body);
+
+        Optional<IdempotencyRecord> cached = idempotencyStore.cached(key);
+        if (cached.isPresent()) {
+            replay(cached.get(), requestHash, response);
+            return;
+        }
+
+        CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            awaitAndReplay(running, requestHash, response);
+            return;
+        }
+
+        String owner = UUID.randomUUID().toString();
+        try {
+            Optional<IdempotencyRecord> existing = idempotencyStore.claim(key, requestHash, owner);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                mine.complete(record.getStatus() != null ? record : null);
+                if (record.getStatus() != null || !record.getRequestHash().equals(requestHash)) {
+                    replay(record, requestHash, response);
+                } else {
+                    inProgress(response);
+                }
+                return;
+            }
+
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            IdempotencyRecord stored;
+            try {
+                stored = execute(new CachedBodyRequest(request, body), wrapper, chain, key, owner, requestHash);
+            } catch (IdempotencyStore.ClaimLostException e) {
+                // Taken over by a retry; this request's writes were rolled back and the retry answers.
+                response.reset();
+                inProgress(response);
+                return;
+            } catch (IOException | ServletException | RuntimeException e) {
+                idempotencyStore.release(key, owner);
+                throw e;
+            }
+
+            if (stored == null) {
+                idempotencyStore.release(key, owner);
+            }
+            mine.complete(stored);
+            wrapper.copyBodyToResponse();
+        } finally {
+            mine.complete(null);
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Runs the request in a transaction that the handler's own transaction joins and stores the
+     * response in it, so the request's writes and its stored response commit together. Returns null
+     * when nothing was stored: server errors roll the request back so it can be retried.
+     */
+    private IdempotencyRecord execute(HttpServletRequest request, ContentCachingResponseWrapper wrapper,
+                                      FilterChain chain, String key, String owner, String requestHash)
+            throws IOException, ServletException {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                try {
+                    chain.doFilter(request, wrapper);
+                } catch (IOException | ServletException e) {
+                    throw new ChainException(e);
+                }
+                if (wrapper.getStatus() >= 500) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return idempotencyStore.complete(key, owner, requestHash, wrapper.getStatus(),
+                        wrapper.getContentType(), wrapper.getContentAsByteArray());
+            });
+        } catch (UnexpectedRollbackException e) {
+            // The handler rolled its work back but still answered; that answer is sent, not stored.
+            return null;
+        } catch (ChainException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw (ServletException) e.getCause();
+        }
+    }
+
+    private void awaitAndReplay(CompletableFuture<IdempotencyRecord> running, String requestHash,
+                                HttpServletResponse response) throws IOException {
+        IdempotencyRecord record;
+        try {
+            record = running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            record = null;
+        } catch (ExecutionException | TimeoutException e) {
+            record = null;
+        }
+
+        if (record == null) {
+            inProgress(response);
+        } else {
+            replay(record, requestHash, response);
+        }
+    }
+
+    private void replay(IdempotencyRecord record, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (!record.getRequestHash().equals(requestHash)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "A Idempotency-Key já foi usada com outra requisição.");
+            return;
+        }
+
+        response.setStatus(record.getStatus());
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getBody() != null) {
+            response.getOutputStream().write(record.getBody());
+        }
+    }
+
+    private void inProgress(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        reject(response, HttpStatus.CONFLICT,
+                "Uma requisição com esta Idempotency-Key ainda está em processamento.");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class ChainException extends RuntimeException {
+        ChainException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    /** Lets the controller read the body that was already consumed for hashing. */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.web;
+
+/** Concurrency budget an endpoint is limited under. */
+public enum LimitGroup {
+    READ,
+    SCAN,
+    WRITE
+}
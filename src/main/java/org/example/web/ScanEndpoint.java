@@ -0,0 +1,15 @@
+package org.example.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler that reads a large part of a table, so it is limited under the small
+ * {@link LimitGroup#SCAN} budget instead of the one for cheap reads.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ScanEndpoint {
+}
@@ -0,0 +1,4 @@
+-- Sale ids are allocated by Hibernate in blocks of 50 (pooled optimizer), which
+-- lets inserts be sent as JDBC batches. The sequence must step by the same amount.
+ALTER SEQUENCE sale_id_sale_seq INCREMENT BY 50;
+SELECT setval('sale_id_sale_seq', (SELECT COALESCE(MAX(id_sale), 0) + 50 FROM sale));
@@ -0,0 +1,25 @@
+-- Per-seller and per-customer sale totals, maintained by the application in the
+-- same transaction as each sale write. Average ticket is total_revenue / sale_count.
+CREATE TABLE seller_sales_stats (
+    id_seller     BIGINT PRIMARY KEY REFERENCES seller (id_seller) ON DELETE CASCADE,
+    sale_count    BIGINT           NOT NULL DEFAULT 0,
+    total_revenue DOUBLE PRECISION NOT NULL DEFAULT 0
+);
+
+CREATE TABLE customer_sales_stats (
+    id_customer   BIGINT PRIMARY KEY REFERENCES customer (id_customer) ON DELETE CASCADE,
+    sale_count    BIGINT           NOT NULL DEFAULT 0,
+    total_revenue DOUBLE PRECISION NOT NULL DEFAULT 0
+);
+
+INSERT INTO seller_sales_stats (id_seller, sale_count, total_revenue)
+SELECT se.id_seller, COUNT(sa.id_sale), COALESCE(SUM(sa.total_value), 0)
+FROM seller se
+         LEFT JOIN sale sa ON sa.id_seller = se.id_seller
+GROUP BY se.id_seller;
+
+INSERT INTO customer_sales_stats (id_customer, sale_count, total_revenue)
+SELECT c.id_customer, COUNT(sa.id_sale), COALESCE(SUM(sa.total_value), 0)
+FROM customer c
+         LEFT JOIN sale sa ON sa.id_customer = c.id_customer
+GROUP BY c.id_customer;
@@ -0,0 +1,3 @@
+-- Backs the /sales/range queries and the salesAbove10 report with index range
+-- scans; count and sum modes can be answered from the index alone.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sale_total_value ON sale (total_value);
@@ -0,0 +1,14 @@
+-- Progress of chunked maintenance jobs over the sale table, committed with each
+-- chunk so RUNNING jobs can be resumed after a restart.
+CREATE TABLE sale_maintenance_job (
+    id_job       BIGSERIAL PRIMARY KEY,
+    type         VARCHAR(64)  NOT NULL,
+    status       VARCHAR(16)  NOT NULL,
+    last_id      BIGINT       NOT NULL,
+    max_id       BIGINT       NOT NULL,
+    updated_rows BIGINT       NOT NULL,
+    batch_size   INTEGER      NOT NULL,
+    started_at   TIMESTAMPTZ  NOT NULL,
+    finished_at  TIMESTAMPTZ,
+    error        TEXT
+);
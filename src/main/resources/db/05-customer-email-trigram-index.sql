@@ -0,0 +1,5 @@
+-- Trigram index so that email LIKE '%text%' (countByEmailContaining and
+-- /customers/searchByEmail) is answered from the index instead of a sequential
+-- scan. Patterns shorter than three characters still scan the table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_email_trgm ON customer USING gin (email gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Optimistic-locking versions behind the single-entity ETags, and per-table change
+-- tokens behind the list ETags. Every write transaction increments the token of
+-- the tables it touched just before committing.
+ALTER TABLE sale ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE seller ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE customer ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE change_token (
+    name    VARCHAR(64) PRIMARY KEY,
+    version BIGINT      NOT NULL
+);
+
+INSERT INTO change_token (name, version) VALUES ('sale', 0), ('seller', 0), ('customer', 0);
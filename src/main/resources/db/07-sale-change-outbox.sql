@@ -0,0 +1,26 @@
+-- Transactional outbox behind GET /sales/changes. Rows are inserted in the same
+-- transaction as the sale write; the feed relay numbers them after they commit
+-- (see SaleChangeRepository.positionCommitted), so feed_position follows commit
+-- order.
+CREATE SEQUENCE sale_change_id_seq INCREMENT BY 50;
+
+CREATE TABLE sale_change (
+    id               BIGINT PRIMARY KEY,
+    feed_position    BIGINT,
+    sale_id          BIGINT       NOT NULL,
+    operation        VARCHAR(16)  NOT NULL,
+    seller_id        BIGINT,
+    customer_id      BIGINT,
+    product_id       BIGINT,
+    product_name     VARCHAR(255),
+    product_price    DOUBLE PRECISION,
+    product_quantity INTEGER,
+    total_value      DOUBLE PRECISION,
+    version          BIGINT,
+    changed_at       TIMESTAMPTZ  NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_sale_change_position ON sale_change (feed_position);
+-- Only the committing transaction's own rows are unnumbered.
+CREATE INDEX idx_sale_change_unpositioned ON sale_change (id) WHERE feed_position IS NULL;
+CREATE INDEX idx_sale_change_changed_at ON sale_change (changed_at);
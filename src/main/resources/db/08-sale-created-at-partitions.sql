@@ -0,0 +1,41 @@
+-- Sales get a creation timestamp, and the table is rebuilt range-partitioned by
+-- month on it, so period reports only scan the months they cover and old months
+-- can be dropped whole. Existing rows predate the column and are stamped with
+-- the migration time. The application creates upcoming months itself
+-- (SalePartitionMaintenance); rows outside every month land in sale_default.
+-- Run with the application stopped: the table is copied.
+BEGIN;
+
+ALTER TABLE sale RENAME TO sale_unpartitioned;
+ALTER SEQUENCE sale_id_sale_seq OWNED BY NONE;
+
+-- The partition key has to be part of the primary key; ids stay unique through the sequence.
+CREATE TABLE sale (
+    LIKE sale_unpartitioned INCLUDING DEFAULTS,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (id_sale, created_at),
+    FOREIGN KEY (id_seller) REFERENCES seller (id_seller),
+    FOREIGN KEY (id_customer) REFERENCES customer (id_customer)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE sale_default PARTITION OF sale DEFAULT;
+
+DO $$
+DECLARE
+    first_month TIMESTAMP := date_trunc('month', now() AT TIME ZONE 'UTC');
+BEGIN
+    FOR i IN 0..3 LOOP
+        EXECUTE format('CREATE TABLE sale_p%s PARTITION OF sale FOR VALUES FROM (%L) TO (%L)',
+                       to_char(first_month + make_interval(months => i), 'YYYY_MM'),
+                       (first_month + make_interval(months => i)) AT TIME ZONE 'UTC',
+                       (first_month + make_interval(months => i + 1)) AT TIME ZONE 'UTC');
+    END LOOP;
+END $$;
+
+INSERT INTO sale SELECT *, now() FROM sale_unpartitioned;
+DROP TABLE sale_unpartitioned;
+
+CREATE INDEX idx_sale_total_value ON sale (total_value);
+CREATE INDEX idx_sale_created_at ON sale (created_at);
+
+COMMIT;
@@ -0,0 +1,15 @@
+-- Idempotency-Key claims and stored responses for POST /sales and POST /customers.
+-- A row without status is a request still running, owned by the holder of the owner
+-- token; the response is stored in the same transaction as the request's own writes.
+-- The key includes the request path.
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(512) PRIMARY KEY,
+    request_hash    VARCHAR(255) NOT NULL,
+    owner           VARCHAR(64)  NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(255),
+    body            BYTEA,
+    created_at      TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX idx_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,12 @@
+-- Spreads each change token over 16 rows. A write transaction increments one
+-- stripe picked at random, so concurrent writers to the same table rarely wait
+-- on the same row lock; a table's token is the sum of its stripes.
+ALTER TABLE change_token ADD COLUMN stripe INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE change_token DROP CONSTRAINT change_token_pkey;
+ALTER TABLE change_token ADD PRIMARY KEY (name, stripe);
+
+INSERT INTO change_token (name, stripe, version)
+SELECT t.name, s.stripe, 0
+FROM change_token t
+CROSS JOIN generate_series(1, 15) AS s(stripe);
+
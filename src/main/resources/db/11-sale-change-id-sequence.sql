@@ -0,0 +1,4 @@
+-- Bulk imports reserve outbox ids the way Hibernate's pooled optimizer does:
+-- each nextval stands for the block of 50 ids ending at the returned value.
+-- Moving the sequence past its start value keeps the first block above zero.
+SELECT setval('sale_change_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM sale_change));
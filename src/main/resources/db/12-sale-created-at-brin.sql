@@ -0,0 +1,29 @@
+-- Undoes the monthly partitioning of db/08. Its primary key had to include
+-- created_at, while lookups by id (GET, the versioned UPDATE of PUT/PATCH,
+-- DELETE) only know id_sale, so each of them probed every month's index and got
+-- slower with every month kept. The table is a single heap keyed by id_sale
+-- again. Rows are appended in creation order, so a BRIN index on created_at lets
+-- period totals and the retention job (SaleRetention) read only the block
+-- ranges of the months they cover; the B-tree stays for the ordered, limited
+-- period listings.
+-- Run with the application stopped: the table is copied.
+BEGIN;
+
+ALTER TABLE sale RENAME TO sale_partitioned;
+
+CREATE TABLE sale (
+    LIKE sale_partitioned INCLUDING DEFAULTS,
+    PRIMARY KEY (id_sale),
+    FOREIGN KEY (id_seller) REFERENCES seller (id_seller),
+    FOREIGN KEY (id_customer) REFERENCES customer (id_customer)
+);
+
+INSERT INTO sale SELECT * FROM sale_partitioned ORDER BY created_at, id_sale;
+DROP TABLE sale_partitioned;
+ALTER SEQUENCE sale_id_sale_seq OWNED BY sale.id_sale;
+
+CREATE INDEX idx_sale_total_value ON sale (total_value);
+CREATE INDEX idx_sale_created_at ON sale (created_at);
+CREATE INDEX idx_sale_created_at_brin ON sale USING brin (created_at);
+
+COMMIT;
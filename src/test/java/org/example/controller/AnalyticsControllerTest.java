@@ -0,0 +1,52 @@
+package org.example.controller;
+
+import org.example.dto.GroupTotal;
+import org.example.service.SalesSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class AnalyticsControllerTest {
+
+    @InjectMocks
+    private AnalyticsController analyticsController;
+
+    @Mock
+    private SalesSnapshot salesSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetTopSellersByRevenue() {
+        List<GroupTotal> totals = Collections.singletonList(new GroupTotal(1L, 3, 7, 150.0));
+        when(salesSnapshot.topSellersByRevenue(5)).thenReturn(totals);
+
+        ResponseEntity<Object> response = analyticsController.getTopSellersByRevenue(5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(totals, response.getBody());
+    }
+
+    @Test
+    void testGetQuantityPerProductRejectsInvalidLimit() {
+        ResponseEntity<Object> response = analyticsController.getQuantityPerProduct(0);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("O limite deve estar entre 1 e 1000.", response.getBody());
+        verify(salesSnapshot, never()).topProductsByQuantity(anyInt());
+    }
+}
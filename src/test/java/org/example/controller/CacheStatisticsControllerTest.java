@@ -0,0 +1,54 @@
+package org.example.controller;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.dto.CacheStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheStatisticsControllerTest {
+
+    private CacheStatisticsController cacheStatisticsController;
+
+    private CaffeineCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+        cacheManager.setCacheNames(Arrays.asList("customers", "sellers"));
+
+        cacheStatisticsController = new CacheStatisticsController();
+        ReflectionTestUtils.setField(cacheStatisticsController, "cacheManager", cacheManager);
+    }
+
+    @Test
+    void testGetCacheStatisticsCountsHitsAndMisses() {
+        Cache customers = cacheManager.getCache("customers");
+        customers.get(1L);
+        customers.put(1L, "John");
+        customers.get(1L);
+        customers.get(1L);
+
+        ResponseEntity<List<CacheStatistics>> response = cacheStatisticsController.getCacheStatistics();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CacheStatistics statistics = response.getBody().stream()
+                .filter(s -> s.getName().equals("customers"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals(1, statistics.getSize());
+        assertEquals(2, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(0, statistics.getEvictions());
+    }
+}
@@ -1,17 +1,29 @@
 package org.example.controller;
 
+import org.example.dto.CursorPage;
+import org.example.dto.SalesStats;
 import org.example.model.Customer;
 import org.example.repository.CustomerRepository;
+import org.example.service.ChangeTokenService;
+import org.example.service.ReferenceExistenceIndex;
+import org.example.service.SalesRollupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.*;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 class CustomerControllerTest {
@@ -22,6 +34,15 @@ class CustomerControllerTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private ReferenceExistenceIndex referenceIndex;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private ChangeTokenService changeTokenService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -34,7 +55,7 @@ class CustomerControllerTest {
 
         when(customerRepository.findAll()).thenReturn(customers);
 
-        ResponseEntity<Object> response = customerController.getAllCustomers();
+        ResponseEntity<Object> response = customerController.getAllCustomers(request());
 
         assert(response.getStatusCode() == HttpStatus.OK);
         assert(response.getBody() instanceof List);
@@ -46,7 +67,7 @@ class CustomerControllerTest {
         List<Customer> emptyCustomersList = new ArrayList<>();
         when(customerRepository.findAll()).thenReturn(emptyCustomersList);
 
-        ResponseEntity<Object> response = customerController.getAllCustomers();
+        ResponseEntity<Object> response = customerController.getAllCustomers(request());
 
         assert(response.getStatusCode() == HttpStatus.NOT_FOUND);
         assert(response.getBody().equals("A lista de clientes está vazia."));
@@ -90,6 +111,32 @@ class CustomerControllerTest {
     }
 
 
+    @Test
+    void testSearchCustomersByEmail() {
+        List<Customer> customers = new ArrayList<>();
+        customers.add(new Customer(5L, "John", "john@example.com", "1234567890", "123 Main St"));
+        customers.add(new Customer(9L, "Jane", "jane@example.com", "0987654321", "456 Second St"));
+
+        when(customerRepository.findByEmailContainingAndIdGreaterThanOrderByIdAsc("example", 0L, PageRequest.of(0, 2)))
+                .thenReturn(customers);
+
+        ResponseEntity<Object> response = customerController.searchCustomersByEmail("example", 0L, 2);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CursorPage<?> page = (CursorPage<?>) response.getBody();
+        assertEquals(customers, page.getContent());
+        assertEquals(9L, page.getNextCursor());
+    }
+
+    @Test
+    void testSearchCustomersByEmailTooShort() {
+        ResponseEntity<Object> response = customerController.searchCustomersByEmail("ex", 0L, 50);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Informe ao menos 3 caracteres do email.", response.getBody());
+        verify(customerRepository, never()).findByEmailContainingAndIdGreaterThanOrderByIdAsc(any(), any(), any());
+    }
+
     @Test
     void testCreateCustomer() {
         Customer customer = new Customer(1L, "John", "john@example.com", "1234567890", "123 Main St");
@@ -100,6 +147,8 @@ class CustomerControllerTest {
         assert(response.getBody().equals("Cliente criado."));
 
         verify(customerRepository, times(1)).save(customer);
+        verify(referenceIndex, times(1)).addCustomer(1L);
+        verify(salesRollupService, times(1)).registerCustomer(1L);
     }
 
     @Test
@@ -107,28 +156,45 @@ class CustomerControllerTest {
         Long id = 1L;
         Customer customer = new Customer(id, "John", "john@example.com", "1234567890", "123 Main St");
 
-        when(customerRepository.findById(id)).thenReturn(java.util.Optional.of(customer));
+        when(customerRepository.findCachedById(id)).thenReturn(java.util.Optional.of(customer));
 
-        ResponseEntity<Object> response = customerController.getCustomerById(id);
+        ResponseEntity<Object> response = customerController.getCustomerById(id, request());
 
         assert(response.getStatusCode() == HttpStatus.OK);
         assert(response.getBody().equals(customer));
 
-        verify(customerRepository, times(1)).findById(id);
+        verify(customerRepository, times(1)).findCachedById(id);
     }
 
     @Test
     void testGetCustomerByIdNotFound() {
         Long id = 1L;
 
-        when(customerRepository.findById(id)).thenReturn(java.util.Optional.empty());
+        when(customerRepository.findCachedById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = customerController.getCustomerById(id);
+        ResponseEntity<Object> response = customerController.getCustomerById(id, request());
 
         assert(response.getStatusCode() == HttpStatus.NOT_FOUND);
         assert(response.getBody().equals("Cliente com ID " + id + " não encontrado."));
+    }
 
-        verify(customerRepository, times(1)).findById(id);
+    @Test
+    void testGetCustomerByIdNotModifiedUsesCachedVersion() {
+        Long id = 1L;
+        Customer customer = new Customer(id, "John", "john@example.com", "1234567890", "123 Main St");
+        customer.setVersion(4L);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/customers/1");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"4\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        when(customerRepository.findCachedById(id)).thenReturn(Optional.of(customer));
+
+        ResponseEntity<Object> response = customerController.getCustomerById(id,
+                new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verify(customerRepository, never()).findById(id);
     }
 
     @Test
@@ -141,6 +207,7 @@ class CustomerControllerTest {
         assert(response.getBody().equals("Cliente com ID " + id + " foi deletado com sucesso."));
 
         verify(customerRepository, times(1)).deleteById(id);
+        verify(referenceIndex, times(1)).removeCustomer(id);
     }
 
     @Test
@@ -176,4 +243,34 @@ class CustomerControllerTest {
         verify(customerRepository, times(1)).findById(id);
         verify(customerRepository, never()).save(updatedCustomer);
     }
+
+    @Test
+    void testGetCustomerStats() {
+        Long id = 1L;
+        SalesStats stats = SalesStats.of(4L, 100.0);
+
+        when(salesRollupService.getCustomerStats(id)).thenReturn(Optional.of(stats));
+
+        ResponseEntity<Object> response = customerController.getCustomerStats(id);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+        assertEquals(25.0, ((SalesStats) response.getBody()).getAverageTicket());
+    }
+
+    @Test
+    void testGetCustomerStatsNotFound() {
+        Long id = 1L;
+
+        when(salesRollupService.getCustomerStats(id)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = customerController.getCustomerStats(id);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Cliente com ID " + id + " não encontrado.", response.getBody());
+    }
+
+    private ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
 }
@@ -0,0 +1,74 @@
+package org.example.controller;
+
+import org.example.dto.ImportRejection;
+import org.example.dto.ImportResult;
+import org.example.service.BulkImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class ImportControllerTest {
+
+    @InjectMocks
+    private ImportController importController;
+
+    @Mock
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testImportSalesReportsRejectedRows() {
+        InputStream csv = csv("id_seller,id_customer,product_id,product_name,product_price,product_quantity\n1,99,1,Product,10.0,1\n");
+        ImportResult result = new ImportResult(0, 1, Collections.singletonList(new ImportRejection(1, "Cliente não encontrado.")));
+        when(bulkImportService.importSales(csv)).thenReturn(result);
+
+        ResponseEntity<Object> response = importController.importSales(csv);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testImportCustomers() {
+        InputStream csv = csv("name,email,cpf,address\nJohn,john@example.com,123,Street\n");
+        ImportResult result = new ImportResult(1, 0, Collections.emptyList());
+        when(bulkImportService.importCustomers(csv)).thenReturn(result);
+
+        ResponseEntity<Object> response = importController.importCustomers(csv);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testImportSellersWithMalformedFile() {
+        InputStream csv = csv("name,email\nJohn\n");
+        when(bulkImportService.importSellers(csv)).thenThrow(new DataIntegrityViolationException("missing data for column \"email\""));
+
+        ResponseEntity<Object> response = importController.importSellers(csv);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Arquivo CSV inválido: missing data for column \"email\"", response.getBody());
+    }
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
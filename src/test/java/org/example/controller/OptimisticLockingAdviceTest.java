@@ -0,0 +1,36 @@
+package org.example.controller;
+
+import org.example.model.Sale;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OptimisticLockingAdviceTest {
+
+    @Test
+    void testConcurrentUpdateAnswersConflict() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ConflictingController())
+                .setControllerAdvice(new OptimisticLockingAdvice())
+                .build();
+
+        mockMvc.perform(put("/sales/1"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("O registro foi alterado por outra requisição. Tente novamente."));
+    }
+
+    @RestController
+    static class ConflictingController {
+        @PutMapping("/sales/{id}")
+        public void update(@PathVariable Long id) {
+            throw new ObjectOptimisticLockingFailureException(Sale.class, id);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.controller;
+
+import org.example.model.Customer;
+import org.example.model.Seller;
+import org.example.repository.ReactiveCustomerRepository;
+import org.example.repository.ReactiveSaleRepository;
+import org.example.repository.ReactiveSellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class ReactiveReadControllerTest {
+
+    @InjectMocks
+    private ReactiveReadController reactiveReadController;
+
+    @Mock
+    private ReactiveSaleRepository reactiveSaleRepository;
+    @Mock
+    private ReactiveSellerRepository reactiveSellerRepository;
+    @Mock
+    private ReactiveCustomerRepository reactiveCustomerRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testStreamSellersFollowsKeysetPages() {
+        when(reactiveSellerRepository.findAfter(0L, 2)).thenReturn(Flux.just(seller(1L), seller(2L)));
+        when(reactiveSellerRepository.findAfter(2L, 2)).thenReturn(Flux.just(seller(5L), seller(7L)));
+        when(reactiveSellerRepository.findAfter(7L, 2)).thenReturn(Flux.just(seller(8L)));
+
+        List<Seller> sellers = reactiveReadController.streamSellers(0L, 2).collectList().block();
+
+        assertEquals(Arrays.asList(1L, 2L, 5L, 7L, 8L),
+                sellers.stream().map(Seller::getId).collect(Collectors.toList()));
+        verify(reactiveSellerRepository, times(3)).findAfter(anyLong(), eq(2));
+    }
+
+    @Test
+    void testStreamCustomersStopsOnEmptyPageAndClampsPageSize() {
+        when(reactiveCustomerRepository.findAfter(10L, 1000)).thenReturn(Flux.empty());
+
+        List<Customer> customers = reactiveReadController.streamCustomers(10L, 5000).collectList().block();
+
+        assertEquals(0, customers.size());
+        verify(reactiveCustomerRepository).findAfter(10L, 1000);
+        verifyNoMoreInteractions(reactiveCustomerRepository);
+    }
+
+    private Seller seller(Long id) {
+        return new Seller(id, "Seller " + id, "seller" + id + "@example.com", "000", 1000.0);
+    }
+}
@@ -2,23 +2,66 @@ package org.example.controller;
 
 import org.example.model.Customer;
 import org.example.model.Sale;
+import org.example.model.SaleMaintenanceJob;
 import org.example.model.Seller;
 import org.example.repository.CustomerRepository;
 import org.example.repository.SaleRepository;
 import org.example.repository.SellerRepository;
+import org.example.service.AsyncSaleIngestion;
+import org.example.service.ChangeTokenService;
+import org.example.service.ReferenceExistenceIndex;
+import org.example.service.SaleBatchService;
+import org.example.service.SaleChangeFeed;
+import org.example.service.SaleCsvExporter;
+import org.example.service.SaleContribution;
+import org.example.service.SaleOutbox;
+import org.example.service.SalesRollupService;
+import org.example.service.SalesSnapshot;
+import org.example.service.TotalValueZeroJob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.example.dto.BatchError;
+import org.example.dto.BatchResult;
+import org.example.dto.CursorPage;
+import org.example.dto.IngestStatus;
+import org.example.dto.SalePatch;
+import org.example.dto.SaleSummary;
+import org.example.dto.SaleView;
+import org.example.dto.SalesStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class SaleControllerTest {
@@ -35,6 +78,42 @@ class SaleControllerTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private SaleBatchService saleBatchService;
+
+    @Mock
+    private ReferenceExistenceIndex referenceIndex;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private TotalValueZeroJob totalValueZeroJob;
+
+    @Mock
+    private SalesSnapshot salesSnapshot;
+
+    @Mock
+    private SaleCsvExporter saleCsvExporter;
+
+    @Mock
+    private ChangeTokenService changeTokenService;
+
+    @Mock
+    private AsyncSaleIngestion asyncSaleIngestion;
+
+    @Mock
+    private SaleOutbox saleOutbox;
+
+    @Mock
+    private SaleChangeFeed saleChangeFeed;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -45,7 +124,7 @@ class SaleControllerTest {
         List<Sale> emptySalesList = new ArrayList<>();
         when(saleRepository.findAll()).thenReturn(emptySalesList);
 
-        ResponseEntity<Object> response = saleController.getAllSales();
+        ResponseEntity<Object> response = saleController.getAllSales(request());
 
         assert (response.getStatusCode() == HttpStatus.NOT_FOUND);
         assert (response.getBody().equals("A lista de vendas está vazia."));
@@ -59,7 +138,7 @@ class SaleControllerTest {
         nonEmptySalesList.add(new Sale());
         when(saleRepository.findAll()).thenReturn(nonEmptySalesList);
 
-        ResponseEntity<Object> response = saleController.getAllSales();
+        ResponseEntity<Object> response = saleController.getAllSales(request());
 
         assert (response.getStatusCode() == HttpStatus.OK);
         assert (response.getBody().equals(nonEmptySalesList));
@@ -67,12 +146,45 @@ class SaleControllerTest {
         verify(saleRepository, times(1)).findAll();
     }
 
+    @Test
+    void testGetSalesPageFullPageReturnsCursor() {
+        Sale first = new Sale();
+        first.setId(11L);
+        Sale second = new Sale();
+        second.setId(12L);
+        List<Sale> page = new ArrayList<>();
+        page.add(first);
+        page.add(second);
+        when(saleRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 2))).thenReturn(page);
+
+        ResponseEntity<CursorPage<Sale>> response = saleController.getSalesPage(10L, 2);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody().getContent());
+        assertEquals(12L, response.getBody().getNextCursor());
+    }
+
+    @Test
+    void testGetSalesPageLastPageHasNoCursor() {
+        Sale last = new Sale();
+        last.setId(13L);
+        List<Sale> page = new ArrayList<>();
+        page.add(last);
+        when(saleRepository.findByIdGreaterThanOrderByIdAsc(12L, PageRequest.of(0, 2))).thenReturn(page);
+
+        ResponseEntity<CursorPage<Sale>> response = saleController.getSalesPage(12L, 2);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody().getContent());
+        assertNull(response.getBody().getNextCursor());
+    }
+
     @Test
     void testGetSalesAbove10EmptyList() {
         List<Sale> emptySalesListAbove10 = new ArrayList<>();
         when(saleRepository.findByTotalValueGreaterThan(10.00)).thenReturn(emptySalesListAbove10);
 
-        ResponseEntity<Object> response = saleController.getSalesAbove10();
+        ResponseEntity<Object> response = saleController.getSalesAbove10(request());
 
         assert (response.getStatusCode() == HttpStatus.NOT_FOUND);
         assert (response.getBody().equals("Não há vendas com valor total acima de 10.00."));
@@ -88,7 +200,7 @@ class SaleControllerTest {
         nonEmptySalesListAbove10.add(sale1);
         when(saleRepository.findByTotalValueGreaterThan(10.00)).thenReturn(nonEmptySalesListAbove10);
 
-        ResponseEntity<Object> response = saleController.getSalesAbove10();
+        ResponseEntity<Object> response = saleController.getSalesAbove10(request());
 
         assert (response.getStatusCode() == HttpStatus.OK);
         assert (response.getBody().equals(nonEmptySalesListAbove10));
@@ -96,13 +208,121 @@ class SaleControllerTest {
         verify(saleRepository, times(1)).findByTotalValueGreaterThan(10.00);
     }
 
+    @Test
+    void testGetSalesInRangeList() {
+        List<Sale> sales = new ArrayList<>();
+        sales.add(new Sale());
+        PageRequest page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "totalValue"));
+        when(saleRepository.findByTotalValueBetween(10.0, 50.0, page)).thenReturn(sales);
+
+        ResponseEntity<Object> response = saleController.getSalesInRange(10.0, 50.0, "desc", 10, "list");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sales, response.getBody());
+        verify(saleRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetSalesInRangeCount() {
+        when(saleRepository.countByTotalValueBetween(10.0, Double.MAX_VALUE)).thenReturn(7L);
+
+        ResponseEntity<Object> response = saleController.getSalesInRange(10.0, null, "asc", 100, "count");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Collections.singletonMap("count", 7L), response.getBody());
+        verify(saleRepository, never()).findByTotalValueBetween(any(), any(), any());
+    }
+
+    @Test
+    void testGetSalesInRangeSum() {
+        when(saleRepository.sumTotalValueBetween(-Double.MAX_VALUE, 100.0)).thenReturn(350.0);
+
+        ResponseEntity<Object> response = saleController.getSalesInRange(null, 100.0, "asc", 100, "sum");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Collections.singletonMap("sum", 350.0), response.getBody());
+    }
+
+    @Test
+    void testGetSalesInRangeInvalidBounds() {
+        ResponseEntity<Object> response = saleController.getSalesInRange(50.0, 10.0, "asc", 100, "list");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("O valor mínimo não pode ser maior que o máximo.", response.getBody());
+    }
+
+    @Test
+    void testGetSalesInRangeInvalidMode() {
+        ResponseEntity<Object> response = saleController.getSalesInRange(null, null, "asc", 100, "avg");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Modo inválido: avg.", response.getBody());
+    }
+
+    @Test
+    void testGetSalesInPeriod() {
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+        Instant to = Instant.parse("2026-11-01T00:00:00Z");
+        List<Sale> sales = Collections.singletonList(new Sale());
+        PageRequest page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        when(saleRepository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(from, to, page)).thenReturn(sales);
+
+        ResponseEntity<Object> response = saleController.getSalesInPeriod(from, to, "desc", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sales, response.getBody());
+    }
+
+    @Test
+    void testGetSalesStatsInPeriod() {
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+        Instant to = Instant.parse("2026-11-01T00:00:00Z");
+        when(saleRepository.summarizeCreatedBetween(from, to))
+                .thenReturn(Collections.singletonList(new Object[]{4L, 100.0}));
+
+        ResponseEntity<Object> response = saleController.getSalesStatsInPeriod(from, to);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        SalesStats stats = (SalesStats) response.getBody();
+        assertEquals(4L, stats.getSaleCount());
+        assertEquals(25.0, stats.getAverageTicket());
+    }
+
+    @Test
+    void testGetSalesInPeriodInvalidBounds() {
+        Instant instant = Instant.parse("2026-10-01T00:00:00Z");
+
+        ResponseEntity<Object> response = saleController.getSalesStatsInPeriod(instant, instant);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("O início do período deve ser anterior ao fim.", response.getBody());
+        verify(saleRepository, never()).summarizeCreatedBetween(any(), any());
+    }
+
     @Test
     void testUpdateTotalValueToZero() {
-        ResponseEntity<Void> response = saleController.updateTotalValueToZero();
+        SaleMaintenanceJob job = new SaleMaintenanceJob();
+        job.setId(7L);
+        when(totalValueZeroJob.start()).thenReturn(job);
 
-        assert (response.getStatusCode() == HttpStatus.OK);
+        ResponseEntity<SaleMaintenanceJob> response = saleController.updateTotalValueToZero();
 
-        verify(saleRepository, times(1)).updateTotalValueToZero();
+        assert (response.getStatusCode() == HttpStatus.ACCEPTED);
+        assertEquals(job, response.getBody());
+        assertEquals("/sales/updateTotalValueToZero/7", response.getHeaders().getLocation().toString());
+
+        verify(totalValueZeroJob, times(1)).start();
+        verify(saleRepository, never()).updateTotalValueToZero();
+    }
+
+    @Test
+    void testGetUpdateTotalValueToZeroJobNotFound() {
+        when(totalValueZeroJob.find(7L)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = saleController.getUpdateTotalValueToZeroJob(7L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Tarefa com ID 7 não encontrada.", response.getBody());
     }
 
     @Test
@@ -113,15 +333,21 @@ class SaleControllerTest {
         Customer customer = new Customer();
         newSale.setCustomer(customer);
 
-        when(sellerRepository.findById(newSale.getSeller().getId())).thenReturn(Optional.of(seller));
-        when(customerRepository.findById(newSale.getCustomer().getId())).thenReturn(Optional.of(customer));
+        when(referenceIndex.sellerExists(newSale.getSeller().getId())).thenReturn(true);
+        when(referenceIndex.customerExists(newSale.getCustomer().getId())).thenReturn(true);
+        when(sellerRepository.getReferenceById(seller.getId())).thenReturn(seller);
+        when(customerRepository.getReferenceById(customer.getId())).thenReturn(customer);
 
         ResponseEntity<Object> response = saleController.createSale(newSale);
 
         assert (response.getStatusCode() == HttpStatus.CREATED);
         assert (response.getBody().equals("Venda criada."));
 
-        verify(saleRepository, times(1)).save(newSale);
+        verify(saleRepository, times(1)).saveAndFlush(newSale);
+        verify(salesRollupService, times(1)).add(SaleContribution.of(newSale));
+        verify(saleOutbox, times(1)).created(newSale);
+        verify(sellerRepository, never()).findById(any());
+        verify(customerRepository, never()).findById(any());
     }
 
     @Test
@@ -132,39 +358,152 @@ class SaleControllerTest {
         Customer customer = new Customer();
         newSale.setCustomer(customer);
 
-        Optional<Seller> sellerOptional = Optional.empty();
-
-        when(sellerRepository.findById(newSale.getSeller().getId())).thenReturn(sellerOptional);
-        when(customerRepository.findById(newSale.getCustomer().getId())).thenReturn(Optional.of(customer));
+        when(referenceIndex.sellerExists(newSale.getSeller().getId())).thenReturn(false);
+        when(referenceIndex.customerExists(newSale.getCustomer().getId())).thenReturn(true);
 
         ResponseEntity<Object> response = saleController.createSale(newSale);
 
         assert (response.getStatusCode() == HttpStatus.BAD_REQUEST);
         assert (response.getBody().equals("Vendedor não encontrado."));
 
-        verify(saleRepository, never()).save(newSale);
+        verify(saleRepository, never()).saveAndFlush(newSale);
     }
 
 
     @Test
-    void testCreateSaleInvalidCustomer() {
+    void testCreateSaleWithStaleIndexEntryReturnsBadRequest() {
         Sale newSale = new Sale();
         Seller seller = new Seller();
+        seller.setId(1L);
         newSale.setSeller(seller);
         Customer customer = new Customer();
+        customer.setId(2L);
         newSale.setCustomer(customer);
 
-        Optional<Customer> customerOptional = Optional.empty();
+        when(referenceIndex.sellerExists(1L)).thenReturn(true);
+        when(referenceIndex.customerExists(2L)).thenReturn(true);
+        when(sellerRepository.getReferenceById(1L)).thenReturn(seller);
+        when(customerRepository.getReferenceById(2L)).thenReturn(customer);
+        when(saleRepository.saveAndFlush(newSale)).thenThrow(new DataIntegrityViolationException("fk_sale_seller"));
+
+        ResponseEntity<Object> response = saleController.createSale(newSale);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Vendedor ou cliente não encontrado.", response.getBody());
+        verify(referenceIndex, times(1)).removeSeller(1L);
+        verify(referenceIndex, times(1)).removeCustomer(2L);
+        verify(salesRollupService, never()).add(any());
+        verify(saleOutbox, never()).created(any());
+    }
+
+    @Test
+    void testCreateSaleInvalidCustomer() {
+        Sale newSale = new Sale();
+        Seller seller = new Seller();
+        newSale.setSeller(seller);
+        Customer customer = new Customer();
+        newSale.setCustomer(customer);
 
-        when(sellerRepository.findById(newSale.getSeller().getId())).thenReturn(Optional.of(seller));
-        when(customerRepository.findById(newSale.getCustomer().getId())).thenReturn(customerOptional);
+        when(referenceIndex.sellerExists(newSale.getSeller().getId())).thenReturn(true);
+        when(referenceIndex.customerExists(newSale.getCustomer().getId())).thenReturn(false);
 
         ResponseEntity<Object> response = saleController.createSale(newSale);
 
         assert (response.getStatusCode() == HttpStatus.BAD_REQUEST);
         assert (response.getBody().equals("Cliente não encontrado."));
 
-        verify(saleRepository, never()).save(newSale);
+        verify(saleRepository, never()).saveAndFlush(newSale);
+    }
+
+    @Test
+    void testCreateSalesBatch() {
+        List<Sale> sales = new ArrayList<>();
+        sales.add(new Sale());
+        sales.add(new Sale());
+        List<BatchError> errors = new ArrayList<>();
+        errors.add(new BatchError(1, "Cliente não encontrado."));
+        BatchResult result = new BatchResult(1, errors);
+
+        when(saleBatchService.insertAll(sales)).thenReturn(result);
+
+        ResponseEntity<Object> response = saleController.createSales(sales);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(result, response.getBody());
+        verify(saleBatchService, times(1)).insertAll(sales);
+    }
+
+    @Test
+    void testCreateSalesBatchNothingCreated() {
+        List<Sale> sales = new ArrayList<>();
+        sales.add(new Sale());
+        List<BatchError> errors = new ArrayList<>();
+        errors.add(new BatchError(0, "Vendedor não encontrado."));
+        BatchResult result = new BatchResult(0, errors);
+
+        when(saleBatchService.insertAll(sales)).thenReturn(result);
+
+        ResponseEntity<Object> response = saleController.createSales(sales);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testCreateSalesBatchTooLarge() {
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i <= SaleBatchService.MAX_BATCH_SIZE; i++) {
+            sales.add(new Sale());
+        }
+
+        ResponseEntity<Object> response = saleController.createSales(sales);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("O lote excede o limite de " + SaleBatchService.MAX_BATCH_SIZE + " vendas.", response.getBody());
+        verify(saleBatchService, never()).insertAll(sales);
+    }
+
+    @Test
+    void testCreateSaleAsyncAccepted() {
+        Sale newSale = new Sale();
+        newSale.setSeller(new Seller(1L, "Seller", "seller@example.com", "000", 1000.0));
+        newSale.setCustomer(new Customer(2L, "Customer", "customer@example.com", "111", "Rua A"));
+
+        when(referenceIndex.sellerExists(1L)).thenReturn(true);
+        when(referenceIndex.customerExists(2L)).thenReturn(true);
+        when(asyncSaleIngestion.submit(newSale)).thenReturn(Optional.of("abc"));
+
+        ResponseEntity<Object> response = saleController.createSaleAsync(newSale);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/sales/async/abc", response.getHeaders().getLocation().toString());
+        assertEquals("abc", ((IngestStatus) response.getBody()).getTrackingId());
+        verify(saleRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateSaleAsyncQueueFull() {
+        Sale newSale = new Sale();
+        newSale.setSeller(new Seller(1L, "Seller", "seller@example.com", "000", 1000.0));
+        newSale.setCustomer(new Customer(2L, "Customer", "customer@example.com", "111", "Rua A"));
+
+        when(referenceIndex.sellerExists(1L)).thenReturn(true);
+        when(referenceIndex.customerExists(2L)).thenReturn(true);
+        when(asyncSaleIngestion.submit(newSale)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = saleController.createSaleAsync(newSale);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testStreamChangesResumesFromLastEventId() {
+        SseEmitter emitter = new SseEmitter();
+        when(saleChangeFeed.subscribe(42L)).thenReturn(emitter);
+
+        assertEquals(emitter, saleController.streamChanges(42L, 7L));
+        verify(saleChangeFeed, never()).subscribe(7L);
     }
 
     @Test
@@ -173,9 +512,10 @@ class SaleControllerTest {
         Sale sale = new Sale();
         sale.setId(id);
 
+        when(saleRepository.findEtagById(id)).thenReturn(Optional.of("0-0-0"));
         when(saleRepository.findById(id)).thenReturn(Optional.of(sale));
 
-        ResponseEntity<Object> response = saleController.getSaleById(id);
+        ResponseEntity<Object> response = saleController.getSaleById(id, request());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(sale, response.getBody());
@@ -187,14 +527,31 @@ class SaleControllerTest {
     void testGetSaleByIdNotFound() {
         Long id = 1L;
 
-        when(saleRepository.findById(id)).thenReturn(Optional.empty());
+        when(saleRepository.findEtagById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = saleController.getSaleById(id);
+        ResponseEntity<Object> response = saleController.getSaleById(id, request());
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("Venda com ID " + id + " não encontrada.", response.getBody());
 
-        verify(saleRepository, times(1)).findById(id);
+        verify(saleRepository, never()).findById(id);
+    }
+
+    @Test
+    void testGetSaleByIdNotModified() {
+        Long id = 1L;
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/sales/1");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3-1-2\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        when(saleRepository.findEtagById(id)).thenReturn(Optional.of("3-1-2"));
+
+        ResponseEntity<Object> response = saleController.getSaleById(id, new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals("\"3-1-2\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(saleRepository, never()).findById(id);
     }
 
     @Test
@@ -211,6 +568,29 @@ class SaleControllerTest {
         verify(saleRepository, times(1)).deleteById(id);
     }
 
+    @Test
+    void testDeleteSaleRemovesRollupContribution() {
+        Long id = 1L;
+        Seller seller = new Seller();
+        seller.setId(2L);
+        Customer customer = new Customer();
+        customer.setId(3L);
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setSeller(seller);
+        sale.setCustomer(customer);
+        sale.setTotalValue(25.0);
+
+        when(saleRepository.findById(id)).thenReturn(Optional.of(sale));
+
+        ResponseEntity<String> response = saleController.deleteSale(id);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(salesRollupService, times(1)).remove(new SaleContribution(2L, 3L, 25.0));
+        verify(saleRepository, times(1)).deleteById(id);
+        verify(saleOutbox, times(1)).deleted(id);
+    }
+
     @Test
     void testUpdateSaleSuccess() {
         Long id = 1L;
@@ -231,19 +611,23 @@ class SaleControllerTest {
         updatedSale.setCustomer(existingCustomer);
 
         when(saleRepository.findById(id)).thenReturn(Optional.of(existingSale));
-        when(sellerRepository.findById(updatedSale.getSeller().getId())).thenReturn(Optional.of(existingSeller));
-        when(customerRepository.findById(updatedSale.getCustomer().getId())).thenReturn(Optional.of(existingCustomer));
-        when(saleRepository.save(existingSale)).thenReturn(existingSale);
+        when(referenceIndex.sellerExists(1L)).thenReturn(true);
+        when(referenceIndex.customerExists(1L)).thenReturn(true);
+        when(sellerRepository.getReferenceById(1L)).thenReturn(existingSeller);
+        when(customerRepository.getReferenceById(1L)).thenReturn(existingCustomer);
 
-        ResponseEntity<Sale> response = saleController.updateSale(id, updatedSale);
+        ResponseEntity<SaleView> response = saleController.updateSale(id, updatedSale);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(existingSale, response.getBody());
+        assertEquals(id, response.getBody().getId());
+        assertEquals(1L, response.getBody().getSellerId());
+        assertEquals(1L, response.getBody().getCustomerId());
 
         verify(saleRepository, times(1)).findById(id);
-        verify(sellerRepository, times(1)).findById(updatedSale.getSeller().getId());
-        verify(customerRepository, times(1)).findById(updatedSale.getCustomer().getId());
-        verify(saleRepository, times(1)).save(existingSale);
+        verify(sellerRepository, never()).findById(any());
+        verify(customerRepository, never()).findById(any());
+        verify(saleRepository, never()).save(any());
+        verify(salesRollupService, times(1)).replace(new SaleContribution(1L, 1L, 0.0), new SaleContribution(1L, 1L, 0.0));
     }
 
     @Test
@@ -263,13 +647,13 @@ class SaleControllerTest {
 
         when(saleRepository.findById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Sale> response = saleController.updateSale(id, updatedSale);
+        ResponseEntity<SaleView> response = saleController.updateSale(id, updatedSale);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 
         verify(saleRepository, times(1)).findById(id);
-        verify(sellerRepository, never()).findById(updatedSale.getSeller().getId());
-        verify(customerRepository, never()).findById(updatedSale.getCustomer().getId());
+        verify(referenceIndex, never()).sellerExists(any());
+        verify(referenceIndex, never()).customerExists(any());
         verify(saleRepository, never()).save(updatedSale);
     }
 
@@ -292,16 +676,16 @@ class SaleControllerTest {
         updatedSale.setCustomer(customer);
 
         when(saleRepository.findById(id)).thenReturn(Optional.of(existingSale));
-        when(sellerRepository.findById(updatedSale.getSeller().getId())).thenReturn(Optional.empty());
+        when(referenceIndex.sellerExists(1L)).thenReturn(false);
+        when(referenceIndex.customerExists(2L)).thenReturn(true);
 
-        ResponseEntity<Sale> response = saleController.updateSale(id, updatedSale);
+        ResponseEntity<SaleView> response = saleController.updateSale(id, updatedSale);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 
         verify(saleRepository, times(1)).findById(id);
-        verify(sellerRepository, times(1)).findById(updatedSale.getSeller().getId());
-        verify(customerRepository, never()).findById(updatedSale.getCustomer().getId());
-        verify(saleRepository, never()).save(updatedSale);
+        verify(sellerRepository, never()).getReferenceById(any());
+        verify(salesRollupService, never()).replace(any(), any());
     }
 
     @Test
@@ -325,16 +709,119 @@ class SaleControllerTest {
         updatedSale.setCustomer(existingCustomer);
 
         when(saleRepository.findById(id)).thenReturn(Optional.of(existingSale));
-        when(sellerRepository.findById(updatedSale.getSeller().getId())).thenReturn(Optional.of(existingSeller));
-        when(customerRepository.findById(updatedSale.getCustomer().getId())).thenReturn(Optional.empty());
+        when(referenceIndex.sellerExists(1L)).thenReturn(true);
+        when(referenceIndex.customerExists(2L)).thenReturn(false);
 
-        ResponseEntity<Sale> response = saleController.updateSale(id, updatedSale);
+        ResponseEntity<SaleView> response = saleController.updateSale(id, updatedSale);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 
         verify(saleRepository, times(1)).findById(id);
-        verify(sellerRepository, times(1)).findById(updatedSale.getSeller().getId());
-        verify(customerRepository, times(1)).findById(updatedSale.getCustomer().getId());
-        verify(saleRepository, never()).save(updatedSale);
+        verify(customerRepository, never()).getReferenceById(any());
+        verify(salesRollupService, never()).replace(any(), any());
+    }
+
+    @Test
+    void testPatchSaleChangesOnlyGivenFields() {
+        Seller seller = new Seller();
+        seller.setId(1L);
+        Customer customer = new Customer();
+        customer.setId(2L);
+
+        Sale existingSale = new Sale();
+        existingSale.setId(1L);
+        existingSale.setSeller(seller);
+        existingSale.setCustomer(customer);
+        existingSale.setProductName("Product");
+        existingSale.setProductPrice(10.0);
+        existingSale.setProductQuantity(2);
+
+        SalePatch patch = new SalePatch();
+        patch.setProductQuantity(3);
+
+        when(saleRepository.findById(1L)).thenReturn(Optional.of(existingSale));
+
+        ResponseEntity<Object> response = saleController.patchSale(1L, patch);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Product", existingSale.getProductName());
+        assertEquals(30.0, existingSale.getTotalValue());
+        assertEquals(3, ((SaleView) response.getBody()).getProductQuantity());
+        verify(saleRepository, never()).save(any());
+        verify(salesRollupService, times(1)).replace(new SaleContribution(1L, 2L, 20.0), new SaleContribution(1L, 2L, 30.0));
+        verify(salesSnapshot, times(1)).put(existingSale);
+    }
+
+    @Test
+    void testPatchSaleUnknownSeller() {
+        Sale existingSale = new Sale();
+        existingSale.setId(1L);
+
+        SalePatch patch = new SalePatch();
+        patch.setSellerId(9L);
+
+        when(saleRepository.findById(1L)).thenReturn(Optional.of(existingSale));
+        when(referenceIndex.sellerExists(9L)).thenReturn(false);
+
+        ResponseEntity<Object> response = saleController.patchSale(1L, patch);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Vendedor não encontrado.", response.getBody());
+        verify(salesRollupService, never()).replace(any(), any());
+    }
+
+    @Test
+    void testExportSalesCompressesWhenRequested() throws IOException {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write((SaleCsvExporter.HEADER + "\n1,2,3,4,Product,10.0,2,20.0\n").getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(saleCsvExporter).export(any(OutputStream.class));
+
+        ResponseEntity<StreamingResponseBody> response = saleController.exportSales(true);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        response.getBody().writeTo(compressed);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("attachment; filename=\"sales.csv.gz\"", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        try (GZIPInputStream csv = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            String content = new String(readAll(csv), StandardCharsets.UTF_8);
+            assertEquals(SaleCsvExporter.HEADER + "\n1,2,3,4,Product,10.0,2,20.0\n", content);
+        }
+    }
+
+    @Test
+    void testStreamSaleSummariesReadsKeysetPagesUntilAShortOne() throws IOException {
+        when(saleRepository.findSummariesAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(summary(1L), summary(2L)));
+        when(saleRepository.findSummariesAfter(2L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(summary(5L)));
+
+        ResponseEntity<StreamingResponseBody> response = saleController.streamSaleSummaries(0L, 2);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        String[] lines = new String(body.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(5L, objectMapper.readTree(lines[2]).get("id").asLong());
+        verify(saleRepository, times(2)).findSummariesAfter(any(), any());
+    }
+
+    private SaleSummary summary(Long id) {
+        return new SaleSummary(id, 1L, "Vendedor", 2L, "Cliente", 3L, "Produto", 10.0, 2, 20.0);
+    }
+
+    private byte[] readAll(GZIPInputStream inputStream) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    private ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
     }
 }
@@ -0,0 +1,134 @@
+package org.example.controller;
+
+import org.example.metrics.SqlStatementCounter;
+import org.example.model.Customer;
+import org.example.model.Sale;
+import org.example.model.Seller;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts what Hibernate does for a whole PUT or PATCH request, response serialization included,
+ * against an in-memory H2 database. Moving a sale to another seller and customer must not fetch
+ * them: what is left is reading the sale, updating it, bumping the change token and writing the
+ * outbox row, plus an occasional sequence call for its id.
+ */
+// The reactive endpoints are not called; the URL only keeps R2DBC from looking for an embedded database.
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:postgresql://localhost:1/none",
+        "spring.r2dbc.username=sa"
+})
+@AutoConfigureMockMvc
+class SaleUpdateStatementCountTest {
+    private static final int MAX_STATEMENTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SellerController sellerController;
+
+    @Autowired
+    private CustomerController customerController;
+
+    @Autowired
+    private SaleController saleController;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long saleId;
+
+    private Long otherSellerId;
+
+    private Long otherCustomerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Seller seller = seller("Vendedor");
+        Customer customer = customer("Cliente");
+        otherSellerId = seller("Outro vendedor").getId();
+        otherCustomerId = customer("Outro cliente").getId();
+
+        Sale sale = new Sale();
+        sale.setSeller(seller);
+        sale.setCustomer(customer);
+        sale.setProductName("Produto");
+        sale.setProductPrice(10.0);
+        sale.setProductQuantity(2);
+        saleController.createSale(sale);
+        saleId = sale.getId();
+    }
+
+    @Test
+    void testPutToAnotherSellerAndCustomerFetchesNeither() throws Exception {
+        String body = "{\"seller\":{\"id\":" + otherSellerId + "},\"customer\":{\"id\":" + otherCustomerId + "}," +
+                "\"productName\":\"Produto\",\"productPrice\":10.0,\"productQuantity\":3}";
+
+        statistics.clear();
+        SqlStatementCounter.reset();
+        mockMvc.perform(put("/sales/{id}", saleId).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sellerId").value(otherSellerId))
+                .andExpect(jsonPath("$.customerId").value(otherCustomerId))
+                .andExpect(jsonPath("$.totalValue").value(30.0));
+
+        assertNeitherIsFetched();
+    }
+
+    @Test
+    void testPatchToAnotherSellerAndCustomerFetchesNeither() throws Exception {
+        String body = "{\"sellerId\":" + otherSellerId + ",\"customerId\":" + otherCustomerId + ",\"productQuantity\":4}";
+
+        statistics.clear();
+        SqlStatementCounter.reset();
+        mockMvc.perform(patch("/sales/{id}", saleId).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sellerId").value(otherSellerId))
+                .andExpect(jsonPath("$.customerId").value(otherCustomerId))
+                .andExpect(jsonPath("$.productQuantity").value(4));
+
+        assertNeitherIsFetched();
+    }
+
+    private void assertNeitherIsFetched() {
+        // A fetch is a select of its own; the sale's current seller and customer arrive joined to it.
+        assertEquals(0, statistics.getEntityStatistics(Seller.class.getName()).getFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(Customer.class.getName()).getFetchCount());
+        int statements = SqlStatementCounter.current();
+        assertTrue(statements <= MAX_STATEMENTS, statements + " statements");
+    }
+
+    private Seller seller(String name) {
+        Seller seller = new Seller();
+        seller.setName(name);
+        sellerController.createSeller(seller);
+        return seller;
+    }
+
+    private Customer customer(String name) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customerController.createCustomer(customer);
+        return customer;
+    }
+}
@@ -1,18 +1,30 @@
 package org.example.controller;
 
 import org.example.controller.SellerController;
+import org.example.dto.SalaryStats;
+import org.example.dto.SalesStats;
 import org.example.model.Seller;
 import org.example.repository.SellerRepository;
+import org.example.service.ChangeTokenService;
+import org.example.service.ReferenceExistenceIndex;
+import org.example.service.SalaryStatistics;
+import org.example.service.SalesRollupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +37,14 @@ public class SellerControllerTest {
     private SellerController sellerController;
     @Mock
     private SellerRepository sellerRepository;
+    @Mock
+    private ReferenceExistenceIndex referenceIndex;
+    @Mock
+    private SalesRollupService salesRollupService;
+    @Mock
+    private ChangeTokenService changeTokenService;
+    @Mock
+    private SalaryStatistics salaryStatistics;
 
     @BeforeEach
     public void setUp() {
@@ -36,7 +56,7 @@ public class SellerControllerTest {
     public void testGetAllSellersEmptyList() {
         when(sellerRepository.findAll()).thenReturn(new ArrayList<>());
 
-        ResponseEntity<Object> response = sellerController.getAllSellers();
+        ResponseEntity<Object> response = sellerController.getAllSellers(request());
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("A lista de vendedores está vazia.", response.getBody());
@@ -49,7 +69,7 @@ public class SellerControllerTest {
 
         when(sellerRepository.findAll()).thenReturn(sellers);
 
-        ResponseEntity<Object> response = sellerController.getAllSellers();
+        ResponseEntity<Object> response = sellerController.getAllSellers(request());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(sellers, response.getBody());
@@ -64,13 +84,15 @@ public class SellerControllerTest {
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals("Vendedor criado.", response.getBody());
         verify(sellerRepository, times(1)).save(newSeller);
+        verify(referenceIndex, times(1)).addSeller(1L);
+        verify(salesRollupService, times(1)).registerSeller(1L);
     }
 
     @Test
     public void testGetSellerSalariesEmptyList() {
         when(sellerRepository.findAllSalariesOrderBySalaryDesc()).thenReturn(new ArrayList<>());
 
-        ResponseEntity<Object> response = sellerController.getSellerSalaries();
+        ResponseEntity<Object> response = sellerController.getSellerSalaries(request());
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("Não há salários para exibir.", response.getBody());
@@ -84,20 +106,41 @@ public class SellerControllerTest {
 
         when(sellerRepository.findAllSalariesOrderBySalaryDesc()).thenReturn(salaries);
 
-        ResponseEntity<Object> response = sellerController.getSellerSalaries();
+        ResponseEntity<Object> response = sellerController.getSellerSalaries(request());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(salaries, response.getBody());
     }
 
+    @Test
+    public void testGetSalaryStats() {
+        List<Double> percentiles = Arrays.asList(50.0, 90.0);
+        SalaryStats stats = new SalaryStats(2, 5000.0, 6000.0, 5500.0, Arrays.asList(6000.0, 5000.0),
+                Collections.singletonMap("p50", 5500.0));
+        when(salaryStatistics.stats(10, percentiles)).thenReturn(Optional.of(stats));
+
+        ResponseEntity<Object> response = sellerController.getSalaryStats(10, percentiles);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    public void testGetSalaryStatsRejectsInvalidPercentile() {
+        ResponseEntity<Object> response = sellerController.getSalaryStats(10, Collections.singletonList(150.0));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(salaryStatistics);
+    }
+
     @Test
     public void testGetSellerByIdSellerFound() {
         Long id = 1L;
         Seller seller = new Seller(id, "Bob", "bob@example.com", "5555555555", 5500.0);
 
-        when(sellerRepository.findById(id)).thenReturn(Optional.of(seller));
+        when(sellerRepository.findCachedById(id)).thenReturn(Optional.of(seller));
 
-        ResponseEntity<Object> response = sellerController.getSellerById(id);
+        ResponseEntity<Object> response = sellerController.getSellerById(id, request());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(seller, response.getBody());
@@ -107,9 +150,9 @@ public class SellerControllerTest {
     public void testGetSellerByIdSellerNotFound() {
         Long id = 1L;
 
-        when(sellerRepository.findById(id)).thenReturn(Optional.empty());
+        when(sellerRepository.findCachedById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = sellerController.getSellerById(id);
+        ResponseEntity<Object> response = sellerController.getSellerById(id, request());
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("Vendedor com ID " + id + " não encontrado.", response.getBody());
@@ -151,5 +194,51 @@ public class SellerControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         assertEquals("Vendedor com ID " + id + " foi deletado com sucesso.", response.getBody());
         verify(sellerRepository, times(1)).deleteById(id);
+        verify(referenceIndex, times(1)).removeSeller(id);
+    }
+
+    @Test
+    public void testGetSellerStats() {
+        Long id = 1L;
+        SalesStats stats = SalesStats.of(4L, 100.0);
+
+        when(salesRollupService.getSellerStats(id)).thenReturn(Optional.of(stats));
+
+        ResponseEntity<Object> response = sellerController.getSellerStats(id);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+        assertEquals(25.0, ((SalesStats) response.getBody()).getAverageTicket());
+    }
+
+    @Test
+    public void testGetSellerStatsNotFound() {
+        Long id = 1L;
+
+        when(salesRollupService.getSellerStats(id)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = sellerController.getSellerStats(id);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Vendedor com ID " + id + " não encontrado.", response.getBody());
+    }
+
+    @Test
+    public void testGetAllSellersNotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/sellers");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"seller-7\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        when(changeTokenService.etag(ChangeTokenService.SELLERS)).thenReturn("seller-7");
+
+        ResponseEntity<Object> response = sellerController.getAllSellers(new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verify(sellerRepository, never()).findAll();
+    }
+
+    private ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
     }
 }
@@ -0,0 +1,108 @@
+package org.example.datasource;
+
+import org.example.config.CacheConfig;
+import org.example.model.Customer;
+import org.example.model.Seller;
+import org.example.repository.CustomerRepository;
+import org.example.repository.SellerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The replica here has no schema at all, standing in for one that has not replayed anything yet:
+ * a read that reaches it fails.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, CachedLookupRoutingTest.RoutingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CachedLookupRoutingTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testCustomerIsReadableRightAfterItIsCreated() {
+        Customer customer = customerRepository.save(new Customer(null, "Ana", "ana@example.com", "111", "Rua 1"));
+
+        Optional<Customer> found = readOnly().execute(status -> customerRepository.findCachedById(customer.getId()));
+
+        assertTrue(found.isPresent());
+        assertEquals("Ana", found.get().getName());
+    }
+
+    @Test
+    void testSalaryStatisticsLoadReadsTheSellerJustCreated() {
+        Seller seller = new Seller();
+        seller.setName("Caio");
+        seller.setSalary(3000.0);
+        sellerRepository.save(seller);
+
+        List<Object[]> rows = readOnly().execute(status -> sellerRepository.findAllIdsAndSalaries());
+
+        assertTrue(rows.stream().anyMatch(row -> seller.getId().equals(row[0])));
+    }
+
+    @Test
+    void testOtherReadOnlyReadsStillUseTheReplica() {
+        Customer customer = customerRepository.save(new Customer(null, "Bia", "bia@example.com", "222", "Rua 2"));
+
+        assertThrows(RuntimeException.class,
+                () -> readOnly().execute(status -> customerRepository.findById(customer.getId())));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    @TestConfiguration
+    static class RoutingConfig {
+        @Bean
+        public ReplicaRoutingDataSource replicaRoutingDataSource() {
+            return new ReplicaRoutingDataSource(
+                    new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "sa", ""),
+                    Collections.singletonMap("replica-0",
+                            new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", "")));
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        }
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager("customers", "sellers");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementMetricsInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SqlStatementMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new SqlStatementMetricsInterceptor(meterRegistry);
+    }
+
+    @Test
+    void testRecordsStatementsPerRequestPattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/sales/5");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/sales/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SqlStatementCounter counter = new SqlStatementCounter();
+
+        interceptor.preHandle(request, response, null);
+        counter.inspect("select 1");
+        counter.inspect("select 2");
+        interceptor.afterCompletion(request, response, null, null);
+
+        DistributionSummary summary = meterRegistry.get(SqlStatementMetricsInterceptor.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/sales/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    @Test
+    void testCounterIsResetBetweenRequests() {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        counter.inspect("select 1");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customers");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/customers");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(0.0, meterRegistry.get(SqlStatementMetricsInterceptor.METRIC_NAME).summary().totalAmount());
+    }
+}
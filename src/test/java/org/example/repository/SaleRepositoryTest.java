@@ -0,0 +1,161 @@
+package org.example.repository;
+
+import org.example.dto.SaleSummary;
+import org.example.model.Customer;
+import org.example.model.Sale;
+import org.example.model.Seller;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DataJpaTest
+class SaleRepositoryTest {
+    private static final int SALES = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SellerRepository sellerRepository;
+
+    private Statistics statistics;
+
+    private Long firstSaleId;
+
+    private Long lastSellerId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < SALES; i++) {
+            Seller seller = entityManager.persist(new Seller(null, "Seller " + i, "seller" + i + "@example.com", "000", 3000.0));
+            Customer customer = entityManager.persist(new Customer(null, "Customer " + i, "customer" + i + "@example.com", "111", "Street " + i));
+
+            Sale sale = new Sale();
+            sale.setSeller(seller);
+            sale.setCustomer(customer);
+            sale.setProductId((long) i);
+            sale.setProductName("Product " + i);
+            sale.setProductQuantity(i + 1);
+            sale.setProductPrice(10.0);
+            entityManager.persist(sale);
+
+            if (firstSaleId == null) {
+                firstSaleId = sale.getId();
+            }
+            lastSellerId = seller.getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllLoadsAssociationsInOneQuery() {
+        List<Sale> sales = saleRepository.findAll();
+        sales.forEach(sale -> {
+            sale.getSeller().getName();
+            sale.getCustomer().getName();
+        });
+
+        assertEquals(SALES, sales.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByTotalValueGreaterThanLoadsAssociationsInOneQuery() {
+        List<Sale> sales = saleRepository.findByTotalValueGreaterThan(10.00);
+        sales.forEach(sale -> {
+            sale.getSeller().getName();
+            sale.getCustomer().getName();
+        });
+
+        assertEquals(SALES - 1, sales.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testTotalValueRangeQueries() {
+        List<Sale> sales = saleRepository.findByTotalValueBetween(20.0, 40.0,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "totalValue")));
+
+        assertEquals(2, sales.size());
+        assertEquals(40.0, sales.get(0).getTotalValue());
+        assertEquals(30.0, sales.get(1).getTotalValue());
+        assertEquals(3, saleRepository.countByTotalValueBetween(20.0, 40.0));
+        assertEquals(90.0, saleRepository.sumTotalValueBetween(20.0, 40.0));
+    }
+
+    @Test
+    void testCreatedAtPeriodQueries() {
+        Instant now = Instant.now();
+        List<Sale> sales = saleRepository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+                now.minus(1, ChronoUnit.HOURS), now.plus(1, ChronoUnit.HOURS), PageRequest.of(0, 100));
+        Object[] summary = saleRepository.summarizeCreatedBetween(
+                now.minus(1, ChronoUnit.HOURS), now.plus(1, ChronoUnit.HOURS)).get(0);
+
+        assertEquals(SALES, sales.size());
+        assertEquals(SALES, ((Long) summary[0]).intValue());
+        assertEquals(150.0, summary[1]);
+        assertEquals(0, saleRepository.findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+                now.plus(1, ChronoUnit.HOURS), now.plus(2, ChronoUnit.HOURS), PageRequest.of(0, 100)).size());
+    }
+
+    @Test
+    void testFindSummariesAfterUsesOneQuery() {
+        List<SaleSummary> summaries = saleRepository.findSummariesAfter(0L, PageRequest.of(0, 100));
+
+        assertEquals(SALES, summaries.size());
+        assertEquals("Seller 0", summaries.get(0).getSellerName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testUpdateWithReferenceBindingIssuesOneSelectAndOneUpdate() {
+        Sale sale = saleRepository.findById(firstSaleId).orElseThrow(IllegalStateException::new);
+        sale.setSeller(sellerRepository.getReferenceById(lastSellerId));
+        sale.setProductQuantity(9);
+        entityManager.flush();
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        Sale updated = saleRepository.findById(firstSaleId).orElseThrow(IllegalStateException::new);
+        assertEquals(lastSellerId, updated.getSeller().getId());
+        assertEquals(90.0, updated.getTotalValue());
+    }
+
+    @Test
+    void testEtagChangesWhenEmbeddedSellerChanges() {
+        String before = saleRepository.findEtagById(firstSaleId).orElseThrow(IllegalStateException::new);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Sale sale = saleRepository.findById(firstSaleId).orElseThrow(IllegalStateException::new);
+        sale.getSeller().setName("Renamed");
+        entityManager.flush();
+        entityManager.clear();
+
+        String after = saleRepository.findEtagById(firstSaleId).orElseThrow(IllegalStateException::new);
+        assertNotEquals(before, after);
+        assertFalse(saleRepository.findEtagById(-1L).isPresent());
+    }
+}
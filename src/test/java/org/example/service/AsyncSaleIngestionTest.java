@@ -0,0 +1,109 @@
+package org.example.service;
+
+import org.example.dto.BatchError;
+import org.example.dto.BatchResult;
+import org.example.dto.IngestState;
+import org.example.dto.IngestStatus;
+import org.example.model.Sale;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AsyncSaleIngestionTest {
+
+    @InjectMocks
+    private AsyncSaleIngestion asyncSaleIngestion;
+
+    @Mock
+    private SaleBatchService saleBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(asyncSaleIngestion, "statusTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(asyncSaleIngestion, "flushIntervalMs", 50L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncSaleIngestion.shutdown();
+    }
+
+    @Test
+    void testQueuedSalesAreCommittedInOneBatch() throws InterruptedException {
+        ReflectionTestUtils.setField(asyncSaleIngestion, "queueCapacity", 10);
+        ReflectionTestUtils.setField(asyncSaleIngestion, "flushSize", 3);
+        ReflectionTestUtils.setField(asyncSaleIngestion, "flushIntervalMs", 1000L);
+        when(saleBatchService.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Sale> sales = invocation.getArgument(0);
+            sales.get(0).setId(10L);
+            sales.get(2).setId(12L);
+            return new BatchResult(2, Collections.singletonList(new BatchError(1, "Vendedor não encontrado.")));
+        });
+        asyncSaleIngestion.start();
+
+        String first = asyncSaleIngestion.submit(new Sale()).get();
+        String second = asyncSaleIngestion.submit(new Sale()).get();
+        String third = asyncSaleIngestion.submit(new Sale()).get();
+
+        IngestStatus committed = awaitResolved(first);
+        assertEquals(IngestState.COMMITTED, committed.getState());
+        assertEquals(10L, committed.getSaleId());
+        assertEquals(IngestState.REJECTED, awaitResolved(second).getState());
+        assertEquals("Vendedor não encontrado.", awaitResolved(second).getMessage());
+        assertEquals(12L, awaitResolved(third).getSaleId());
+        verify(saleBatchService, times(1)).insertAll(anyList());
+        assertEquals(0, asyncSaleIngestion.queueStatus().getPending());
+        assertEquals(2, asyncSaleIngestion.queueStatus().getCommitted());
+    }
+
+    @Test
+    void testSubmitIsRefusedWhenQueueIsFull() throws InterruptedException {
+        ReflectionTestUtils.setField(asyncSaleIngestion, "queueCapacity", 1);
+        ReflectionTestUtils.setField(asyncSaleIngestion, "flushSize", 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(saleBatchService.insertAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return new BatchResult(1, Collections.emptyList());
+        });
+        asyncSaleIngestion.start();
+
+        asyncSaleIngestion.submit(new Sale());
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        assertTrue(asyncSaleIngestion.submit(new Sale()).isPresent());
+
+        assertFalse(asyncSaleIngestion.submit(new Sale()).isPresent());
+        assertEquals(2, asyncSaleIngestion.queueStatus().getPending());
+
+        release.countDown();
+    }
+
+    private IngestStatus awaitResolved(String trackingId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<IngestStatus> status = asyncSaleIngestion.status(trackingId);
+            if (status.isPresent() && status.get().getState() != IngestState.PENDING) {
+                return status.get();
+            }
+            Thread.sleep(10);
+        }
+        return fail("Sale " + trackingId + " was not written");
+    }
+}
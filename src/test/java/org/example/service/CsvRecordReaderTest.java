@@ -0,0 +1,43 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void testReadsQuotedAndEmptyFields() throws IOException {
+        List<List<String>> records = readAll("a,\"b,\"\"c\"\"\",,\"\"\r\n\"multi\nline\",x\n");
+
+        assertEquals(2, records.size());
+        assertEquals(Arrays.asList("a", "b,\"c\"", null, ""), records.get(0));
+        assertEquals(Arrays.asList("multi\nline", "x"), records.get(1));
+    }
+
+    @Test
+    void testMalformedRecordDoesNotStopTheRest() throws IOException {
+        List<List<String>> records = readAll("1,\"ab\"c,3\n4,5,6\n7,\"open");
+
+        assertEquals(3, records.size());
+        assertEquals(Collections.emptyList(), records.get(0));
+        assertEquals(Arrays.asList("4", "5", "6"), records.get(1));
+        assertEquals(Collections.emptyList(), records.get(2));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = reader.read(); record != null; record = reader.read()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
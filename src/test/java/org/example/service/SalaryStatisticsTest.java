@@ -0,0 +1,72 @@
+package org.example.service;
+
+import org.example.dto.SalaryStats;
+import org.example.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+class SalaryStatisticsTest {
+
+    @InjectMocks
+    private SalaryStatistics salaryStatistics;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testStatsAfterReload() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, 1000.0},
+                new Object[]{2L, 4000.0},
+                new Object[]{3L, 2000.0},
+                new Object[]{4L, 3000.0});
+        when(sellerRepository.findAllIdsAndSalaries()).thenReturn(rows);
+        salaryStatistics.reload();
+
+        SalaryStats stats = salaryStatistics.stats(2, Arrays.asList(50.0, 90.0)).get();
+
+        assertEquals(4, stats.getCount());
+        assertEquals(1000.0, stats.getMin());
+        assertEquals(4000.0, stats.getMax());
+        assertEquals(2500.0, stats.getMean());
+        assertEquals(Arrays.asList(4000.0, 3000.0), stats.getTop());
+        assertEquals(2500.0, stats.getPercentiles().get("p50"));
+        assertEquals(3700.0, stats.getPercentiles().get("p90"), 1e-9);
+    }
+
+    @Test
+    void testWritesKeepSalariesSorted() {
+        when(sellerRepository.findAllIdsAndSalaries()).thenReturn(Collections.emptyList());
+        salaryStatistics.reload();
+        assertFalse(salaryStatistics.stats(10, Collections.emptyList()).isPresent());
+
+        salaryStatistics.put(1L, 3000.0);
+        salaryStatistics.put(2L, 1000.0);
+        salaryStatistics.put(3L, 2000.0);
+        salaryStatistics.put(2L, 5000.0);
+        salaryStatistics.remove(3L);
+
+        SalaryStats stats = salaryStatistics.stats(10, Collections.singletonList(100.0)).get();
+
+        assertEquals(2, stats.getCount());
+        assertEquals(Arrays.asList(5000.0, 3000.0), stats.getTop());
+        assertEquals(4000.0, stats.getMean());
+        assertEquals(5000.0, stats.getPercentiles().get("p100"));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.service;
+
+import org.example.dto.BatchResult;
+import org.example.model.Customer;
+import org.example.model.Sale;
+import org.example.model.Seller;
+import org.example.repository.CustomerRepository;
+import org.example.repository.SaleRepository;
+import org.example.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class SaleBatchServiceTest {
+
+    @InjectMocks
+    private SaleBatchService saleBatchService;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private SalesSnapshot salesSnapshot;
+
+    @Mock
+    private ChangeTokenService changeTokenService;
+
+    @Mock
+    private SaleOutbox saleOutbox;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testInsertAllChecksReferencesOnceAndReportsRowErrors() {
+        Sale valid = sale(1L, 10L);
+        Sale unknownSeller = sale(2L, 10L);
+        Sale unknownCustomer = sale(1L, 20L);
+        List<Sale> sales = new ArrayList<>();
+        sales.add(valid);
+        sales.add(unknownSeller);
+        sales.add(unknownCustomer);
+
+        when(sellerRepository.findExistingIds(anyCollection())).thenReturn(Collections.singletonList(1L));
+        when(customerRepository.findExistingIds(anyCollection())).thenReturn(Collections.singletonList(10L));
+        when(sellerRepository.getReferenceById(1L)).thenReturn(valid.getSeller());
+        when(customerRepository.getReferenceById(10L)).thenReturn(valid.getCustomer());
+
+        BatchResult result = saleBatchService.insertAll(sales);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("Vendedor não encontrado.", result.getErrors().get(0).getMessage());
+        assertEquals(2, result.getErrors().get(1).getIndex());
+        assertEquals("Cliente não encontrado.", result.getErrors().get(1).getMessage());
+
+        verify(sellerRepository, times(1)).findExistingIds(anyCollection());
+        verify(customerRepository, times(1)).findExistingIds(anyCollection());
+        verify(sellerRepository, never()).findById(any());
+        verify(customerRepository, never()).findById(any());
+        verify(saleRepository, times(1)).saveAll(Collections.singletonList(valid));
+        verify(salesRollupService, times(1)).addAll(Collections.singletonList(SaleContribution.of(valid)));
+        verify(saleOutbox, times(1)).created(valid);
+        verify(saleOutbox, never()).created(unknownSeller);
+    }
+
+    private Sale sale(Long sellerId, Long customerId) {
+        Seller seller = new Seller();
+        seller.setId(sellerId);
+        Customer customer = new Customer();
+        customer.setId(customerId);
+
+        Sale sale = new Sale();
+        sale.setSeller(seller);
+        sale.setCustomer(customer);
+        return sale;
+    }
+}
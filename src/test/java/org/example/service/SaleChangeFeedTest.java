@@ -0,0 +1,156 @@
+package org.example.service;
+
+import org.example.model.SaleChange;
+import org.example.repository.SaleChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SaleChangeFeedTest {
+
+    @InjectMocks
+    private SaleChangeFeed saleChangeFeed;
+
+    @Mock
+    private SaleChangeRepository saleChangeRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(saleChangeFeed, "pollIntervalMs", 60000L);
+        ReflectionTestUtils.setField(saleChangeFeed, "tailSize", 2);
+        ReflectionTestUtils.setField(saleChangeFeed, "retention", Duration.ofDays(7));
+        when(saleChangeRepository.findMaxPosition()).thenReturn(10L);
+        when(saleChangeRepository.findByPositionGreaterThanOrderByPositionAsc(anyLong(), any()))
+                .thenReturn(Collections.emptyList());
+        saleChangeFeed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        saleChangeFeed.shutdown();
+    }
+
+    @Test
+    void testRecentChangesAreServedFromMemory() {
+        when(saleChangeRepository.findByPositionGreaterThanOrderByPositionAsc(10L, PageRequest.of(0, 500)))
+                .thenReturn(Arrays.asList(change(11L), change(12L)));
+        saleChangeFeed.poll();
+
+        List<SaleChange> changes = saleChangeFeed.changesAfter(11L);
+
+        assertEquals(1, changes.size());
+        assertEquals(12L, changes.get(0).getPosition());
+        verify(saleChangeRepository, never()).findByPositionGreaterThanOrderByPositionAsc(11L, PageRequest.of(0, 500));
+    }
+
+    @Test
+    void testOlderPositionsAreReadFromTheOutbox() {
+        when(saleChangeRepository.findByPositionGreaterThanOrderByPositionAsc(10L, PageRequest.of(0, 500)))
+                .thenReturn(Arrays.asList(change(11L), change(12L), change(13L)));
+        saleChangeFeed.poll();
+        when(saleChangeRepository.findByPositionGreaterThanOrderByPositionAsc(5L, PageRequest.of(0, 500)))
+                .thenReturn(Collections.singletonList(change(6L)));
+
+        // The tail holds two changes, so 11 was evicted and anything up to 11 comes from the table.
+        assertEquals(6L, saleChangeFeed.changesAfter(5L).get(0).getPosition());
+        assertEquals(13L, saleChangeFeed.changesAfter(11L).get(1).getPosition());
+        verify(saleChangeRepository, times(1)).findByPositionGreaterThanOrderByPositionAsc(5L, PageRequest.of(0, 500));
+    }
+
+    @Test
+    void testCommittedRowsArePositionedBeforeTheyAreRead() {
+        saleChangeFeed.poll();
+
+        InOrder inOrder = inOrder(saleChangeRepository);
+        inOrder.verify(saleChangeRepository).positionCommitted();
+        inOrder.verify(saleChangeRepository).findByPositionGreaterThanOrderByPositionAsc(10L, PageRequest.of(0, 500));
+    }
+
+    @Test
+    void testStalledSubscriberIsDroppedWhileOthersKeepReceiving() throws Exception {
+        ReflectionTestUtils.setField(saleChangeFeed, "sendTimeout", Duration.ofMillis(50));
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(() -> {
+            blocked.countDown();
+            release.await(10, TimeUnit.SECONDS);
+        });
+        RecordingEmitter reading = new RecordingEmitter(() -> {
+        });
+        saleChangeFeed.subscribe(stalled, 10L);
+        saleChangeFeed.subscribe(reading, 10L);
+        when(saleChangeRepository.findByPositionGreaterThanOrderByPositionAsc(10L, PageRequest.of(0, 500)))
+                .thenReturn(Arrays.asList(change(11L), change(12L)));
+
+        saleChangeFeed.poll();
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        assertTrue(reading.sent.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        saleChangeFeed.poll();
+        release.countDown();
+
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, stalled.sends.get());
+        assertEquals(1L, reading.completed.getCount());
+    }
+
+    private SaleChange change(Long position) {
+        SaleChange change = SaleChange.deleted(position * 100, Instant.now());
+        change.setPosition(position);
+        return change;
+    }
+
+    interface Send {
+        void run() throws Exception;
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+        private final Send onSend;
+        private final AtomicInteger sends = new AtomicInteger();
+        private final CountDownLatch sent = new CountDownLatch(2);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(Send onSend) {
+            this.onSend = onSend;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sends.incrementAndGet();
+            try {
+                onSend.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            sent.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
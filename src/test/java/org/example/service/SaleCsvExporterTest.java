@@ -0,0 +1,80 @@
+package org.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SaleCsvExporterTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private SaleCsvExporter saleCsvExporter;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:csv-export;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE sale (id_sale BIGINT PRIMARY KEY, id_seller BIGINT, id_customer BIGINT, " +
+                "product_id BIGINT, product_name VARCHAR(255), product_price DOUBLE PRECISION, " +
+                "product_quantity INTEGER, total_value DOUBLE PRECISION)");
+
+        saleCsvExporter = new SaleCsvExporter();
+        ReflectionTestUtils.setField(saleCsvExporter, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(saleCsvExporter, "transactionManager", new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE sale");
+    }
+
+    @Test
+    void testExportWritesLargeAndSmallValuesWithoutExponent() throws IOException {
+        jdbcTemplate.update("INSERT INTO sale VALUES (1, 2, 3, 4, 'Product', 12345678.9, 2, 24691357.8)");
+        jdbcTemplate.update("INSERT INTO sale VALUES (2, 2, 3, 4, 'Product', 0.0001, 1, 0.0001)");
+
+        assertEquals(SaleCsvExporter.HEADER + "\n" +
+                "1,2,3,4,Product,12345678.9,2,24691357.8\n" +
+                "2,2,3,4,Product,0.00010,1,0.00010\n", export(2));
+    }
+
+    @Test
+    void testExportLeavesNullColumnsEmpty() throws IOException {
+        jdbcTemplate.update("INSERT INTO sale (id_sale, id_seller, product_price, total_value) VALUES (1, 2, 10.0, 20.5)");
+
+        assertEquals(SaleCsvExporter.HEADER + "\n1,2,,,,10.0,,20.5\n", export(1));
+    }
+
+    @Test
+    void testWriteTextQuotesOnlyWhenNeeded() throws IOException {
+        assertEquals("Caneta", writeText("Caneta"));
+        assertEquals("\"Caneta, azul\"", writeText("Caneta, azul"));
+        assertEquals("\"Caneta \"\"azul\"\"\"", writeText("Caneta \"azul\""));
+        assertEquals("\"Caneta\nazul\"", writeText("Caneta\nazul"));
+        assertEquals("\"Caneta\razul\"", writeText("Caneta\razul"));
+        assertEquals("", writeText(null));
+    }
+
+    private String export(long expectedRows) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(expectedRows, saleCsvExporter.export(outputStream));
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String writeText(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        SaleCsvExporter.writeText(writer, value);
+        return writer.toString();
+    }
+}
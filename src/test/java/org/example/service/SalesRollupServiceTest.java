@@ -0,0 +1,84 @@
+package org.example.service;
+
+import org.example.repository.CustomerSalesStatsRepository;
+import org.example.repository.SellerSalesStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SalesRollupServiceTest {
+
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private SellerSalesStatsRepository sellerStatsRepository;
+
+    @Mock
+    private CustomerSalesStatsRepository customerStatsRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testAddAllSendsOneBatchPerTableInIdOrder() {
+        when(jdbcTemplate.batchUpdate(contains("seller_sales_stats"), anyList())).thenReturn(new int[]{1, 1});
+        when(jdbcTemplate.batchUpdate(contains("customer_sales_stats"), anyList())).thenReturn(new int[]{1, 1, 1});
+
+        salesRollupService.addAll(Arrays.asList(
+                new SaleContribution(9L, 30L, 10.0),
+                new SaleContribution(2L, 10L, 20.0),
+                new SaleContribution(9L, 20L, 5.0)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> sellerRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("seller_sales_stats"), sellerRows.capture());
+        assertEquals(2, sellerRows.getValue().size());
+        assertArrayEquals(new Object[]{1L, 20.0, 2L}, sellerRows.getValue().get(0));
+        assertArrayEquals(new Object[]{2L, 15.0, 9L}, sellerRows.getValue().get(1));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> customerRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("customer_sales_stats"), customerRows.capture());
+        assertEquals(3, customerRows.getValue().size());
+        assertEquals(10L, customerRows.getValue().get(0)[2]);
+        assertEquals(30L, customerRows.getValue().get(2)[2]);
+
+        verify(sellerStatsRepository, never()).upsertDelta(anyLong(), anyLong(), anyDouble());
+        verify(customerStatsRepository, never()).upsertDelta(anyLong(), anyLong(), anyDouble());
+    }
+
+    @Test
+    void testAddUpsertsMissingRows() {
+        when(jdbcTemplate.batchUpdate(contains("seller_sales_stats"), anyList())).thenReturn(new int[]{0});
+        when(jdbcTemplate.batchUpdate(contains("customer_sales_stats"), anyList())).thenReturn(new int[]{1});
+
+        salesRollupService.add(new SaleContribution(1L, 2L, 30.0));
+
+        verify(sellerStatsRepository, times(1)).upsertDelta(1L, 1L, 30.0);
+        verify(customerStatsRepository, never()).upsertDelta(anyLong(), anyLong(), anyDouble());
+    }
+}
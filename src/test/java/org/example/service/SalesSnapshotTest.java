@@ -0,0 +1,117 @@
+package org.example.service;
+
+import org.example.dto.GroupTotal;
+import org.example.model.Customer;
+import org.example.model.Sale;
+import org.example.model.Seller;
+import org.example.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class SalesSnapshotTest {
+
+    @InjectMocks
+    private SalesSnapshot salesSnapshot;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testReloadAndGroupByColumn() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, 10L, 100L, 7L, 10.25, 2, 20.5},
+                new Object[]{2L, 10L, 200L, 8L, 4.0, 1, 4.0},
+                new Object[]{3L, 11L, 200L, 7L, 10.0, 5, 50.0},
+                new Object[]{4L, null, null, null, null, null, null});
+        when(saleRepository.findSnapshotRowsAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+
+        salesSnapshot.reload();
+
+        assertEquals(4, salesSnapshot.size());
+        assertEquals(10.25, salesSnapshot.price(1L));
+        assertEquals(0.0, salesSnapshot.price(4L));
+
+        List<GroupTotal> sellers = salesSnapshot.topSellersByRevenue(10);
+        assertEquals(2, sellers.size());
+        assertEquals(11L, sellers.get(0).getId());
+        assertEquals(50.0, sellers.get(0).getRevenue());
+        assertEquals(10L, sellers.get(1).getId());
+        assertEquals(2, sellers.get(1).getSaleCount());
+        assertEquals(24.5, sellers.get(1).getRevenue());
+
+        List<GroupTotal> products = salesSnapshot.topProductsByQuantity(1);
+        assertEquals(1, products.size());
+        assertEquals(7L, products.get(0).getId());
+        assertEquals(7, products.get(0).getQuantity());
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDropsRows() {
+        when(saleRepository.findSnapshotRowsAfter(eq(0L), any(Pageable.class))).thenReturn(Collections.emptyList());
+        salesSnapshot.reload();
+
+        salesSnapshot.put(sale(1L, 10L, 100L, 10.0));
+        salesSnapshot.put(sale(2L, 10L, 100L, 5.0));
+        salesSnapshot.put(sale(1L, 10L, 100L, 30.0));
+        salesSnapshot.remove(2L);
+
+        assertEquals(1, salesSnapshot.size());
+        assertEquals(30.0, salesSnapshot.price(1L));
+        assertNull(salesSnapshot.price(2L));
+        List<GroupTotal> customers = salesSnapshot.topCustomersByRevenue(10);
+        assertEquals(1, customers.size());
+        assertEquals(1, customers.get(0).getSaleCount());
+        assertEquals(30.0, customers.get(0).getRevenue());
+    }
+
+    @Test
+    void testRemoveMovesTheLastRowWithItsPrice() {
+        when(saleRepository.findSnapshotRowsAfter(eq(0L), any(Pageable.class))).thenReturn(Collections.emptyList());
+        salesSnapshot.reload();
+
+        salesSnapshot.put(sale(1L, 10L, 100L, 10.0));
+        salesSnapshot.put(sale(2L, 10L, 100L, 5.0));
+        salesSnapshot.put(sale(3L, 10L, 100L, 7.5));
+        salesSnapshot.remove(1L);
+
+        assertEquals(2, salesSnapshot.size());
+        assertNull(salesSnapshot.price(1L));
+        assertEquals(5.0, salesSnapshot.price(2L));
+        assertEquals(7.5, salesSnapshot.price(3L));
+    }
+
+    private Sale sale(Long id, Long sellerId, Long customerId, double price) {
+        Seller seller = new Seller();
+        seller.setId(sellerId);
+        Customer customer = new Customer();
+        customer.setId(customerId);
+
+        Sale sale = new Sale();
+        sale.setId(id);
+        sale.setSeller(seller);
+        sale.setCustomer(customer);
+        sale.setProductId(1L);
+        sale.setProductQuantity(1);
+        sale.setProductPrice(price);
+        return sale;
+    }
+}
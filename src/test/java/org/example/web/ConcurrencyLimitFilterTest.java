@@ -0,0 +1,173 @@
+package org.example.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ConcurrencyLimitProperties properties;
+
+    private ConcurrencyLimitFilter filter;
+
+    private final Map<String, HandlerMethod> handlers = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        handlers.put("/sales", handler("getAll"));
+        handlers.put("/sales/export", handler("export"));
+        handlers.put("/sales/{id}", handler("getById"));
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConcurrencyLimitProperties();
+        properties.setScan(new ConcurrencyLimitProperties.Group(1, 1, 4, 3));
+        properties.setRead(new ConcurrencyLimitProperties.Group(2, 1, 10, 20));
+        filter = newFilter();
+    }
+
+    @Test
+    void testScanOverItsBudgetIsShedWhileReadsStillPass() throws Exception {
+        MockHttpServletRequest firstScan = streaming("/sales");
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        AtomicInteger reached = new AtomicInteger();
+        filter.doFilter(request("/sales"), shed, (request, response) -> reached.incrementAndGet());
+        assertEquals(0, reached.get());
+        assertEquals(200, run("/sales/{id}").getStatus());
+
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METRIC)
+                .tag("uri", "/sales").tag("group", "scan").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get(ConcurrencyLimitFilter.GROUP_REJECTED_METRIC)
+                .tag("group", "scan").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.LIMIT_METRIC)
+                .tag("uri", "/sales").gauge().value());
+        assertEquals(2.0, meterRegistry.get(ConcurrencyLimitFilter.LIMIT_METRIC)
+                .tag("uri", "/sales/{id}").tag("group", "read").gauge().value());
+
+        firstScan.getAsyncContext().complete();
+
+        assertEquals(0, filter.limiter("GET", "/sales").getInFlight());
+        assertEquals(200, run("/sales").getStatus());
+    }
+
+    @Test
+    void testScanEndpointsShareTheGroupCeiling() throws Exception {
+        properties.setScan(new ConcurrencyLimitProperties.Group(2, 1, 4, 3));
+        filter = newFilter();
+        MockHttpServletRequest firstScan = streaming("/sales");
+        streaming("/sales");
+        streaming("/sales/export");
+
+        assertEquals(503, run("/sales/export").getStatus());
+        assertEquals(1, filter.limiter("GET", "/sales/export").getInFlight());
+        assertEquals(3, filter.groupInFlight(LimitGroup.SCAN));
+
+        firstScan.getAsyncContext().complete();
+
+        assertEquals(2, filter.groupInFlight(LimitGroup.SCAN));
+        assertEquals(200, run("/sales/export").getStatus());
+    }
+
+    @Test
+    void testPermitIsReleasedWhenTheHandlerFails() {
+        FilterChain failing = (request, response) -> {
+            throw new IllegalStateException("falhou");
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request("/sales/{id}"), new MockHttpServletResponse(), failing));
+
+        assertEquals(0, filter.limiter("GET", "/sales/{id}").getInFlight());
+        assertEquals(0, filter.groupInFlight(LimitGroup.READ));
+    }
+
+    @Test
+    void testRequestsWithoutControllerMethodAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            streaming("/unknown");
+        }
+        for (LimitGroup group : LimitGroup.values()) {
+            assertEquals(0, filter.groupInFlight(group));
+        }
+    }
+
+    @Test
+    void testDisabledLimiterLetsEverythingThrough() throws Exception {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            streaming("/sales");
+        }
+        assertNull(filter.limiter("GET", "/sales"));
+    }
+
+    private ConcurrencyLimitFilter newFilter() {
+        HandlerMapping handlerMapping = request -> {
+            HandlerMethod handler = handlers.get(request.getRequestURI());
+            if (handler == null) {
+                return null;
+            }
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, request.getRequestURI());
+            return new HandlerExecutionChain(handler);
+        };
+        return new ConcurrencyLimitFilter(properties, meterRegistry, handlerMapping);
+    }
+
+    private MockHttpServletResponse run(String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(uri), response, new MockFilterChain());
+        return response;
+    }
+
+    /** Starts a request whose response keeps streaming until its async context completes. */
+    private MockHttpServletRequest streaming(String uri) throws Exception {
+        MockHttpServletRequest request = request(uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        assertEquals(200, response.getStatus());
+        return request;
+    }
+
+    private MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(name));
+    }
+
+    static class Endpoints {
+        @ScanEndpoint
+        public String getAll() {
+            return "all";
+        }
+
+        @ScanEndpoint
+        public String export() {
+            return "export";
+        }
+
+        public String getById() {
+            return "one";
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimiterTest {
+
+    @Test
+    void testRefusesRequestsOverTheLimit() {
+        GradientLimiter limiter = new GradientLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 100, 1.5, 0.2);
+        runAtLimit(limiter, 200, 10);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        runAtLimit(limiter, 5, 100);
+
+        assertTrue(limiter.getLimit() < grown / 2, "limit " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    void testIdleEndpointKeepsItsLimit() {
+        GradientLimiter limiter = new GradientLimiter(10, 2, 100, 1.5, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(i < 50 ? 10 : 100));
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    private void runAtLimit(GradientLimiter limiter, int rounds, long latencyMillis) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            }
+        }
+    }
+}
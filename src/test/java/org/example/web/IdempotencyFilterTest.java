@@ -0,0 +1,233 @@
+package org.example.web;
+
+import org.example.model.IdempotencyRecord;
+import org.example.service.IdempotencyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"name\":\"Ana\"}";
+
+    @InjectMocks
+    private IdempotencyFilter idempotencyFilter;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(idempotencyFilter, "waitTimeout", Duration.ofSeconds(5));
+        when(idempotencyStore.cached(anyString())).thenReturn(Optional.empty());
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(idempotencyStore.claim(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+        when(idempotencyStore.complete(anyString(), anyString(), anyString(), anyInt(), any(), any()))
+                .thenAnswer(invocation -> {
+                    IdempotencyRecord record = new IdempotencyRecord(invocation.getArgument(0),
+                            invocation.getArgument(2), invocation.getArgument(1), Instant.now());
+                    record.setStatus(invocation.getArgument(3));
+                    record.setContentType(invocation.getArgument(4));
+                    record.setBody(invocation.getArgument(5));
+                    return record;
+                });
+    }
+
+    @Test
+    void testFirstRequestRunsAndIsStored() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, servletResponse) -> {
+            assertEquals(BODY, StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+            HttpServletResponse httpResponse = (HttpServletResponse) servletResponse;
+            httpResponse.setStatus(201);
+            httpResponse.setContentType("text/plain;charset=UTF-8");
+            httpResponse.getWriter().write("Cliente criado.");
+        };
+
+        idempotencyFilter.doFilter(request("key-1", BODY), response, chain);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("Cliente criado.", response.getContentAsString());
+        verify(idempotencyStore).complete(eq("/customers key-1"), anyString(), eq(hash(BODY)), eq(201),
+                eq("text/plain;charset=UTF-8"), aryEq("Cliente criado.".getBytes(StandardCharsets.UTF_8)));
+        verify(transactionManager).commit(any());
+        verify(idempotencyStore, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void testRequestWhoseClaimWasTakenOverIsRolledBack() throws Exception {
+        when(idempotencyStore.complete(anyString(), anyString(), anyString(), anyInt(), any(), any()))
+                .thenThrow(new IdempotencyStore.ClaimLostException("/customers key-1"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setStatus(201);
+            servletResponse.getWriter().write("Cliente criado.");
+        };
+
+        idempotencyFilter.doFilter(request("key-1", BODY), response, chain);
+
+        assertEquals(409, response.getStatus());
+        assertFalse(response.getContentAsString().contains("Cliente criado."));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testReplayIsAnsweredWithoutRunningTheRequest() throws Exception {
+        when(idempotencyStore.cached("/customers key-1")).thenReturn(Optional.of(stored(BODY)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        idempotencyFilter.doFilter(request("key-1", BODY), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(201, response.getStatus());
+        assertEquals("Cliente criado.", response.getContentAsString());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(idempotencyStore, never()).claim(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testKeyReusedWithAnotherBodyIsRejected() throws Exception {
+        when(idempotencyStore.cached("/customers key-1")).thenReturn(Optional.of(stored(BODY)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        idempotencyFilter.doFilter(request("key-1", "{\"name\":\"Bia\"}"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    void testRequestStillRunningElsewhereIsConflict() throws Exception {
+        IdempotencyRecord claim = new IdempotencyRecord("/customers key-1", hash(BODY), "other", Instant.now());
+        when(idempotencyStore.claim(eq("/customers key-1"), eq(hash(BODY)), anyString())).thenReturn(Optional.of(claim));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        idempotencyFilter.doFilter(request("key-1", BODY), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(409, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void testServerErrorReleasesTheKey() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (request, servletResponse) -> ((HttpServletResponse) servletResponse).setStatus(500);
+
+        idempotencyFilter.doFilter(request("key-1", BODY), response, chain);
+
+        assertEquals(500, response.getStatus());
+        verify(idempotencyStore).release(eq("/customers key-1"), anyString());
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), anyString(), anyInt(), any(), any());
+        verify(transactionManager).commit(argThat(TransactionStatus::isRollbackOnly));
+    }
+
+    @Test
+    void testConcurrentDuplicateWaitsForTheFirstRequest() throws Exception {
+        // Like the real store, a duplicate arriving after the first request finished is served from the cache.
+        AtomicReference<IdempotencyRecord> completed = new AtomicReference<>();
+        when(idempotencyStore.cached("/customers key-1")).thenAnswer(invocation -> Optional.ofNullable(completed.get()));
+        when(idempotencyStore.complete(anyString(), anyString(), anyString(), anyInt(), any(), any())).thenAnswer(invocation -> {
+            IdempotencyRecord record = stored(BODY);
+            completed.set(record);
+            return record;
+        });
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        FilterChain chain = (request, servletResponse) -> {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) servletResponse).setStatus(201);
+            servletResponse.getWriter().write("Cliente criado.");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            MockHttpServletResponse first = new MockHttpServletResponse();
+            Future<?> firstDone = executor.submit(() -> {
+                idempotencyFilter.doFilter(request("key-1", BODY), first, chain);
+                return null;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse second = new MockHttpServletResponse();
+            Future<?> secondDone = executor.submit(() -> {
+                idempotencyFilter.doFilter(request("key-1", BODY), second, chain);
+                return null;
+            });
+            release.countDown();
+            firstDone.get(5, TimeUnit.SECONDS);
+            secondDone.get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, executions.get());
+            assertEquals(201, second.getStatus());
+            assertEquals("Cliente criado.", second.getContentAsString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/customers");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private IdempotencyRecord stored(String body) {
+        IdempotencyRecord record = new IdempotencyRecord("/customers key-1", hash(body), "owner", Instant.now());
+        record.setStatus(201);
+        record.setContentType("text/plain;charset=UTF-8");
+        record.setBody("Cliente criado.".getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private String hash(String body) {
+        return DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8));
+    }
+}